@@ -0,0 +1,41 @@
+package com.oneday.benchmark;
+
+import com.oneday.Application;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Application context shared by the benchmarks of one fork.
+ * Starts the application without the web server, so the datasets are loaded into H2
+ * and the lookup tables are built exactly as in production.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(Application.class)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "logging.level.root=WARN",
+                "app.cache.persistent.enabled=false")
+            .run();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
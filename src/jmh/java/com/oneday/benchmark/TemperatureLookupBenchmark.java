@@ -0,0 +1,74 @@
+package com.oneday.benchmark;
+
+import com.oneday.model.AltitudeOffsetIndex;
+import com.oneday.model.AltitudeOffsetRange;
+import com.oneday.model.PostalTemperature;
+import com.oneday.model.TemperatureSnapshot;
+import com.oneday.repository.AltitudeOffsetRangeRepository;
+import com.oneday.repository.PostalTemperatureRepository;
+import com.oneday.service.TemperatureLookupTables;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base temperature and altitude offset lookup, from the database versus from the
+ * in-memory {@link TemperatureSnapshot}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TemperatureLookupBenchmark {
+
+    @Param({"38000", "75001", "20090"})
+    private String postalCode;
+
+    @Param({"212", "1100"})
+    private int altitude;
+
+    private PostalTemperatureRepository temperatureRepository;
+    private AltitudeOffsetRangeRepository offsetRepository;
+    private TemperatureLookupTables lookupTables;
+
+    @Setup
+    public void setup(ApplicationState application) {
+        temperatureRepository = application.bean(PostalTemperatureRepository.class);
+        offsetRepository = application.bean(AltitudeOffsetRangeRepository.class);
+        lookupTables = application.bean(TemperatureLookupTables.class);
+    }
+
+    @Benchmark
+    public double repositoryLookup() {
+        double baseTemperature = temperatureRepository.findById(postalCode.substring(0, 2))
+            .map(PostalTemperature::getTemperature)
+            .orElse(Double.NaN);
+        for (AltitudeOffsetRange range : offsetRepository.findAllByOrderByFromMetersAsc()) {
+            if (altitude >= range.getFromMeters() && altitude <= range.getToMeters()) {
+                return baseTemperature + range.getOffset();
+            }
+        }
+        return baseTemperature;
+    }
+
+    @Benchmark
+    public double snapshotLookup() {
+        TemperatureSnapshot snapshot = lookupTables.current();
+        double baseTemperature = snapshot.baseTemperature(TemperatureSnapshot.departmentIndex(postalCode));
+        AltitudeOffsetIndex offsets = snapshot.offsets();
+        int interval = offsets.find(altitude);
+        return interval < 0 ? baseTemperature : baseTemperature + offsets.offset(interval);
+    }
+}
@@ -0,0 +1,89 @@
+package com.oneday.benchmark;
+
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.config.ServiceMessageProperties;
+import com.oneday.model.Coordinates;
+import com.oneday.service.AbstractMapService;
+import com.oneday.service.MapService;
+import com.oneday.service.TemperatureLookupTables;
+import com.oneday.service.TemperatureService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TemperatureService#getStandardMinTemperature(String, String)} end-to-end, with a
+ * {@link MapService} stub in place of the remote maps APIs, so only the local work is measured.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TemperatureServiceBenchmark {
+
+    private static final String ADDRESS = "1 Place Notre-Dame, 38000 Grenoble";
+
+    @Param({"38000", "75001", "20090"})
+    private String postalCode;
+
+    @Param({"212", "1100"})
+    private int altitude;
+
+    private TemperatureService temperatureService;
+
+    @Setup
+    public void setup(ApplicationState application) {
+        temperatureService = new TemperatureService(application.bean(TemperatureLookupTables.class),
+            new StubMapService(altitude, application.bean(ErrorMessageProperties.class)),
+            application.bean(ErrorMessageProperties.class), application.bean(ServiceMessageProperties.class),
+            application.bean(MeterRegistry.class));
+    }
+
+    @Benchmark
+    public double standardMinTemperature() {
+        return temperatureService.getStandardMinTemperature(postalCode, ADDRESS);
+    }
+
+    @Benchmark
+    public double standardMinTemperatureForAltitude() {
+        return temperatureService.getStandardMinTemperature(postalCode, altitude);
+    }
+
+    /**
+     * Answers every lookup with fixed coordinates and elevation.
+     */
+    private static class StubMapService extends AbstractMapService {
+
+        private static final Coordinates COORDINATES = new Coordinates(45.1885, 5.7245);
+
+        private final int elevation;
+
+        StubMapService(int elevation, ErrorMessageProperties errorMessages) {
+            super(errorMessages);
+            this.elevation = elevation;
+        }
+
+        @Override
+        public Coordinates geocodeAddress(String address) {
+            return COORDINATES;
+        }
+
+        @Override
+        public int getElevationMeters(Coordinates coordinates) {
+            return elevation;
+        }
+    }
+}
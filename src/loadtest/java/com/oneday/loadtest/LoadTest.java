@@ -0,0 +1,198 @@
+package com.oneday.loadtest;
+
+import com.oneday.Application;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load test of {@code POST /api/v1/altitude-temp} against local upstream stand-ins.
+ * <p>
+ * Starts the {@link StubUpstreams}, starts the application on a random port pointed at them,
+ * and sends requests at each configured arrival rate for a warmup and a measured period.
+ * Requests are sent on a fixed schedule whether or not earlier ones have completed, and latency
+ * is measured from the scheduled send time, so a stalled service shows up as queueing delay
+ * instead of a lower request rate (no coordinated omission).
+ * <p>
+ * Options are passed as {@code --loadtest.*} arguments (see {@link LoadTestOptions}); all other
+ * arguments are passed to the application, e.g. {@code --app.cache.geocode.enabled=false}.
+ */
+public class LoadTest {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final LoadTestOptions options;
+    private final HttpClient client;
+    private final URI endpoint;
+    private final PrintStream out = System.out;
+    private final AtomicInteger addressSequence = new AtomicInteger();
+
+    LoadTest(LoadTestOptions options, int port) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        this.endpoint = URI.create("http://localhost:" + port + "/api/v1/altitude-temp");
+    }
+
+    public static void main(String[] args) throws IOException {
+        StandardEnvironment arguments = new StandardEnvironment();
+        arguments.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+        LoadTestOptions options = Binder.get(arguments)
+            .bind("loadtest", LoadTestOptions.class)
+            .orElseGet(LoadTestOptions::new);
+
+        try (StubUpstreams stubs = new StubUpstreams(options.getStub());
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                 .run(applicationArguments(stubs, args))) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            Files.createDirectories(Path.of(options.getOutputDirectory()));
+            LoadTest loadTest = new LoadTest(options, port);
+            for (int rate : options.getRates()) {
+                loadTest.runStep(rate, stubs);
+            }
+        }
+    }
+
+    /**
+     * Arguments pointing the application at the stand-ins, followed by the caller's arguments.
+     */
+    private static String[] applicationArguments(StubUpstreams stubs, String[] args) {
+        List<String> arguments = new ArrayList<>(List.of(
+            "--server.port=0",
+            "--logging.level.root=WARN",
+            "--app.api.nominatim-url=" + stubs.nominatimUrl(),
+            "--app.api.elevation-url=" + stubs.elevationUrl()));
+        arguments.addAll(Arrays.asList(args));
+        return arguments.toArray(String[]::new);
+    }
+
+    /**
+     * Run one arrival rate: warm up, measure, wait for the requests in flight, and report.
+     */
+    private void runStep(int rate, StubUpstreams stubs) throws IOException {
+        Recorder recorder = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+        StepResults results = new StepResults();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+
+        out.printf("%n=== %d req/s: warmup %s, measuring %s ===%n", rate, options.getWarmup(), options.getDuration());
+        StepResults warmup = new StepResults();
+        send(rate, options.getWarmup(), intervalNanos, recorder, warmup);
+        awaitInFlight(warmup);
+        recorder.reset();
+        stubs.drainCounts();
+
+        long start = System.nanoTime();
+        send(rate, options.getDuration(), intervalNanos, recorder, results);
+        awaitInFlight(results);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        report(rate, elapsedSeconds, recorder.getIntervalHistogram(), results, stubs.drainCounts());
+    }
+
+    /**
+     * Send requests on a fixed schedule for the given period.
+     */
+    private void send(int rate, Duration period, long intervalNanos, Recorder recorder, StepResults results) {
+        long start = System.nanoTime();
+        long requests = period.toMillis() * rate / 1000;
+        for (long i = 0; i < requests; i++) {
+            long scheduled = start + i * intervalNanos;
+            long delay;
+            while ((delay = scheduled - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            results.inFlight.incrementAndGet();
+            client.sendAsync(nextRequest(), HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    recorder.recordValue(Math.min(System.nanoTime() - scheduled, HIGHEST_TRACKABLE_NANOS));
+                    if (error != null) {
+                        results.failed.increment();
+                    } else if (response.statusCode() != 200) {
+                        results.rejected.increment();
+                    } else if (response.body().contains("\"degraded\":true")) {
+                        results.degraded.increment();
+                    } else {
+                        results.succeeded.increment();
+                    }
+                    results.inFlight.decrementAndGet();
+                });
+        }
+    }
+
+    private HttpRequest nextRequest() {
+        String address = options.isUniqueAddresses()
+            ? addressSequence.incrementAndGet() + " Rue de la République, 38000 Grenoble"
+            : "1 Place Notre-Dame, 38000 Grenoble";
+        String body = "{\"address\":\"" + address + "\",\"postalCode\":\"38000\"}";
+        return HttpRequest.newBuilder(endpoint)
+            .header("Content-Type", "application/json")
+            .timeout(options.getTimeout())
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    private void awaitInFlight(StepResults results) {
+        long deadline = System.nanoTime() + options.getTimeout().toNanos();
+        while (results.inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    private void report(int rate, double elapsedSeconds, Histogram histogram, StepResults results,
+                        long[] upstreamCounts) throws IOException {
+        long completed = results.succeeded.sum() + results.degraded.sum();
+        out.printf("requests: %d ok, %d degraded, %d non-200, %d failed%n",
+            results.succeeded.sum(), results.degraded.sum(), results.rejected.sum(), results.failed.sum());
+        out.printf("throughput: %.1f req/s (target %d req/s)%n", completed / elapsedSeconds, rate);
+        out.printf("latency ms: p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f%n",
+            millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+            millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+            millis(histogram.getMaxValue()));
+        out.printf("upstream responses: %d ok, %d HTTP 500, %d HTTP 429%n",
+            upstreamCounts[0], upstreamCounts[1], upstreamCounts[2]);
+
+        Path file = Path.of(options.getOutputDirectory(), "altitude-temp-" + rate + "rps.hgrm");
+        try (PrintStream histogramOut = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(histogramOut, 1e6);
+        }
+        out.printf("histogram: %s%n", file);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    /**
+     * Outcome counts of one step.
+     */
+    private static class StepResults {
+        final AtomicInteger inFlight = new AtomicInteger();
+        final LongAdder succeeded = new LongAdder();
+        final LongAdder degraded = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder failed = new LongAdder();
+    }
+}
@@ -0,0 +1,147 @@
+package com.oneday.loadtest;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Options of a load test run, bound from the command line arguments.
+ * Prefix: loadtest
+ */
+public class LoadTestOptions {
+
+    /** Arrival rates to run, in requests per second, one step each. */
+    private List<Integer> rates = List.of(10, 25, 50);
+    /** Measured time of each step. */
+    private Duration duration = Duration.ofSeconds(30);
+    /** Time each step runs at its rate before measuring. */
+    private Duration warmup = Duration.ofSeconds(10);
+    /** Request timeout; requests exceeding it are counted as failures. */
+    private Duration timeout = Duration.ofSeconds(30);
+    /** Send a different address with every request, so no lookup is served from a cache. */
+    private boolean uniqueAddresses = true;
+    /** Directory the latency histograms are written to. */
+    private String outputDirectory = "target/loadtest";
+    private Stub stub = new Stub();
+
+    public List<Integer> getRates() {
+        return rates;
+    }
+
+    public void setRates(List<Integer> rates) {
+        this.rates = rates;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public void setDuration(Duration duration) {
+        this.duration = duration;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public void setWarmup(Duration warmup) {
+        this.warmup = warmup;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public boolean isUniqueAddresses() {
+        return uniqueAddresses;
+    }
+
+    public void setUniqueAddresses(boolean uniqueAddresses) {
+        this.uniqueAddresses = uniqueAddresses;
+    }
+
+    public String getOutputDirectory() {
+        return outputDirectory;
+    }
+
+    public void setOutputDirectory(String outputDirectory) {
+        this.outputDirectory = outputDirectory;
+    }
+
+    public Stub getStub() {
+        return stub;
+    }
+
+    public void setStub(Stub stub) {
+        this.stub = stub;
+    }
+
+    /**
+     * Behavior of the Nominatim and Open-Elevation stand-ins.
+     * Response latency follows a log-normal distribution with the given median and shape.
+     */
+    public static class Stub {
+
+        private Duration latencyMedian = Duration.ofMillis(50);
+        /** Log-normal shape; 0 gives a constant latency, 1 a long tail. */
+        private double latencySigma = 0.5;
+        /** Share of responses failing with HTTP 500, 0..1. */
+        private double errorRate = 0;
+        /** Share of responses throttled with HTTP 429, 0..1. */
+        private double throttleRate = 0;
+        /** Retry-After header value of throttled responses. */
+        private Duration retryAfter = Duration.ofSeconds(1);
+        private int threads = 64;
+
+        public Duration getLatencyMedian() {
+            return latencyMedian;
+        }
+
+        public void setLatencyMedian(Duration latencyMedian) {
+            this.latencyMedian = latencyMedian;
+        }
+
+        public double getLatencySigma() {
+            return latencySigma;
+        }
+
+        public void setLatencySigma(double latencySigma) {
+            this.latencySigma = latencySigma;
+        }
+
+        public double getErrorRate() {
+            return errorRate;
+        }
+
+        public void setErrorRate(double errorRate) {
+            this.errorRate = errorRate;
+        }
+
+        public double getThrottleRate() {
+            return throttleRate;
+        }
+
+        public void setThrottleRate(double throttleRate) {
+            this.throttleRate = throttleRate;
+        }
+
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+
+        public void setRetryAfter(Duration retryAfter) {
+            this.retryAfter = retryAfter;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.oneday.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-ins for Nominatim ({@code /search}) and Open-Elevation ({@code /api/v1/lookup}).
+ * Every response is delayed by a log-normal latency, and a configurable share fails with
+ * HTTP 500 or is throttled with HTTP 429. Coordinates and elevations are derived from the
+ * request, so the same address always resolves to the same altitude.
+ */
+class StubUpstreams implements AutoCloseable {
+
+    private static final String SEARCH_PATH = "/search";
+    private static final String LOOKUP_PATH = "/api/v1/lookup";
+    private static final int MAX_ELEVATION_METERS = 1000;
+
+    private final LoadTestOptions.Stub options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final LongAdder served = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+
+    StubUpstreams(LoadTestOptions.Stub options) throws IOException {
+        this.options = options;
+        this.executor = Executors.newFixedThreadPool(options.getThreads());
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext(SEARCH_PATH, exchange -> respond(exchange, this::search));
+        server.createContext(LOOKUP_PATH, exchange -> respond(exchange, this::lookup));
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String nominatimUrl() {
+        return baseUrl() + SEARCH_PATH;
+    }
+
+    String elevationUrl() {
+        return baseUrl() + LOOKUP_PATH;
+    }
+
+    private String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * @return served, failed and throttled response counts since the last call
+     */
+    long[] drainCounts() {
+        return new long[] {served.sumThenReset(), failed.sumThenReset(), throttled.sumThenReset()};
+    }
+
+    private void respond(HttpExchange exchange, ResponseBody body) throws IOException {
+        try (exchange) {
+            sleep(sampleLatencyNanos());
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            double outcome = random.nextDouble();
+            if (outcome < options.getThrottleRate()) {
+                throttled.increment();
+                exchange.getResponseHeaders().set("Retry-After", Long.toString(options.getRetryAfter().toSeconds()));
+                exchange.sendResponseHeaders(429, -1);
+            } else if (outcome < options.getThrottleRate() + options.getErrorRate()) {
+                failed.increment();
+                exchange.sendResponseHeaders(500, -1);
+            } else {
+                byte[] json = objectMapper.writeValueAsBytes(body.create(exchange));
+                served.increment();
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, json.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(json);
+                }
+            }
+        }
+    }
+
+    /**
+     * Nominatim search: one result in mainland France, derived from the query.
+     */
+    private Object search(HttpExchange exchange) {
+        String query = queryParameter(exchange.getRequestURI(), "q");
+        int hash = query.hashCode();
+        double lat = 43 + Math.floorMod(hash, 50_000) / 10_000.0;
+        double lon = Math.floorMod(hash >>> 8, 70_000) / 10_000.0;
+        return new Object[] {Map.of("lat", Double.toString(lat), "lon", Double.toString(lon))};
+    }
+
+    /**
+     * Open-Elevation lookup: GET with one location or POST with several.
+     */
+    private Object lookup(HttpExchange exchange) throws IOException {
+        List<Map<String, Object>> results = new ArrayList<>();
+        if ("POST".equals(exchange.getRequestMethod())) {
+            JsonNode locations = objectMapper.readTree(exchange.getRequestBody()).path("locations");
+            for (JsonNode location : locations) {
+                results.add(elevation(location.path("latitude").asDouble(), location.path("longitude").asDouble()));
+            }
+        } else {
+            String[] location = queryParameter(exchange.getRequestURI(), "locations").split(",");
+            results.add(elevation(Double.parseDouble(location[0]), Double.parseDouble(location[1])));
+        }
+        return Map.of("results", results);
+    }
+
+    private static Map<String, Object> elevation(double latitude, double longitude) {
+        int elevation = Math.floorMod(Double.hashCode(latitude) ^ Double.hashCode(longitude), MAX_ELEVATION_METERS);
+        return Map.of("latitude", latitude, "longitude", longitude, "elevation", elevation);
+    }
+
+    private static String queryParameter(URI uri, String name) {
+        String query = uri.getRawQuery();
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                int separator = parameter.indexOf('=');
+                if (separator > 0 && parameter.substring(0, separator).equals(name)) {
+                    return URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8);
+                }
+            }
+        }
+        return "";
+    }
+
+    private long sampleLatencyNanos() {
+        double gaussian = ThreadLocalRandom.current().nextGaussian();
+        return (long) (options.getLatencyMedian().toNanos() * Math.exp(options.getLatencySigma() * gaussian));
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @FunctionalInterface
+    private interface ResponseBody {
+        Object create(HttpExchange exchange) throws IOException;
+    }
+}
@@ -4,9 +4,12 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.oneday.config.DatasetProperties;
 import com.oneday.model.AltitudeOffsetRange;
+import com.oneday.model.PostalCentroid;
 import com.oneday.model.PostalTemperature;
 import com.oneday.repository.AltitudeOffsetRangeRepository;
+import com.oneday.repository.PostalCentroidRepository;
 import com.oneday.repository.PostalTemperatureRepository;
+import com.oneday.service.TemperatureLookupTables;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
@@ -18,28 +21,40 @@ import java.util.List;
 
 /**
  * Bootstrap component that loads initial data from JSON files into the database.
- * Clears existing data before loading to ensure fresh state.
+ * Clears existing data before loading to ensure fresh state, then rebuilds the
+ * in-memory lookup tables from the loaded data.
  */
 @Component
 public class DataLoader implements CommandLineRunner {
 
     private final PostalTemperatureRepository repository;
     private final AltitudeOffsetRangeRepository offsetRepository;
+    private final PostalCentroidRepository centroidRepository;
     private final ObjectMapper mapper = new ObjectMapper();
     private final Logger log = LoggerFactory.getLogger(DataLoader.class);
     private final DatasetProperties datasetProperties;
+    private final TemperatureLookupTables lookupTables;
 
     public DataLoader(PostalTemperatureRepository repository, AltitudeOffsetRangeRepository offsetRepository,
-                      DatasetProperties datasetProperties) {
+                      PostalCentroidRepository centroidRepository, DatasetProperties datasetProperties,
+                      TemperatureLookupTables lookupTables) {
         this.repository = repository;
         this.offsetRepository = offsetRepository;
+        this.centroidRepository = centroidRepository;
         this.datasetProperties = datasetProperties;
+        this.lookupTables = lookupTables;
     }
 
     @Override
     public void run(String... args) {
         loadTemperatureData();
         loadOffsetData();
+        loadCentroidData();
+        lookupTables.refresh();
+        if (!lookupTables.current().hasCentroidElevations()) {
+            log.warn("No postal centroid elevations in {}; POSTAL precision is off until the table is generated",
+                datasetProperties.getPostalCentroids());
+        }
     }
 
     /**
@@ -68,6 +83,19 @@ public class DataLoader implements CommandLineRunner {
         );
     }
 
+    /**
+     * Load postal code centroid elevation data from JSON file.
+     * Clears existing data before loading to prevent duplicates.
+     */
+    private void loadCentroidData() {
+        loadDatasetFromFile(
+            datasetProperties.getPostalCentroids(),
+            centroidRepository,
+            "postal centroid elevations",
+            new TypeReference<List<PostalCentroid>>() {}
+        );
+    }
+
     /**
      * Generic method to load dataset from JSON file into repository.
      * Clears existing data before loading to prevent duplicates.
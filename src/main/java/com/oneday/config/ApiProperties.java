@@ -3,6 +3,8 @@ package com.oneday.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 /**
  * Configuration properties for external API integrations.
  * Prefix: app.api
@@ -14,6 +16,7 @@ public class ApiProperties {
     private String nominatimUrl;
     private String elevationUrl;
     private String userAgent;
+    private Http http = new Http();
 
     public String getNominatimUrl() {
         return nominatimUrl;
@@ -38,5 +41,90 @@ public class ApiProperties {
     public void setUserAgent(String userAgent) {
         this.userAgent = userAgent;
     }
-}
 
+    public Http getHttp() {
+        return http;
+    }
+
+    public void setHttp(Http http) {
+        this.http = http;
+    }
+
+    /**
+     * Pooled HTTP client settings shared by the upstream APIs.
+     */
+    public static class Http {
+        private int maxConnectionsTotal = 50;
+        private int maxConnectionsPerHost = 20;
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        private Duration readTimeout = Duration.ofSeconds(5);
+        private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+        private Duration keepAlive = Duration.ofSeconds(30);
+        private Duration idleEviction = Duration.ofSeconds(30);
+        private int asyncThreads = 4;
+
+        public int getMaxConnectionsTotal() {
+            return maxConnectionsTotal;
+        }
+
+        public void setMaxConnectionsTotal(int maxConnectionsTotal) {
+            this.maxConnectionsTotal = maxConnectionsTotal;
+        }
+
+        public int getMaxConnectionsPerHost() {
+            return maxConnectionsPerHost;
+        }
+
+        public void setMaxConnectionsPerHost(int maxConnectionsPerHost) {
+            this.maxConnectionsPerHost = maxConnectionsPerHost;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getReadTimeout() {
+            return readTimeout;
+        }
+
+        public void setReadTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+        }
+
+        public Duration getConnectionRequestTimeout() {
+            return connectionRequestTimeout;
+        }
+
+        public void setConnectionRequestTimeout(Duration connectionRequestTimeout) {
+            this.connectionRequestTimeout = connectionRequestTimeout;
+        }
+
+        public Duration getKeepAlive() {
+            return keepAlive;
+        }
+
+        public void setKeepAlive(Duration keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+
+        public Duration getIdleEviction() {
+            return idleEviction;
+        }
+
+        public void setIdleEviction(Duration idleEviction) {
+            this.idleEviction = idleEviction;
+        }
+
+        public int getAsyncThreads() {
+            return asyncThreads;
+        }
+
+        public void setAsyncThreads(int asyncThreads) {
+            this.asyncThreads = asyncThreads;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.oneday.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for batch lookups.
+ * Prefix: app.batch
+ */
+@Component
+@ConfigurationProperties(prefix = "app.batch")
+public class BatchProperties {
+
+    private int maxItems = 1000;
+    private int maxConcurrency = 8;
+    private int streamMaxInFlight = 32;
+
+    public int getMaxItems() {
+        return maxItems;
+    }
+
+    public void setMaxItems(int maxItems) {
+        this.maxItems = maxItems;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public int getStreamMaxInFlight() {
+        return streamMaxInFlight;
+    }
+
+    public void setStreamMaxInFlight(int streamMaxInFlight) {
+        this.streamMaxInFlight = streamMaxInFlight;
+    }
+}
@@ -0,0 +1,187 @@
+package com.oneday.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for in-process lookup caches.
+ * Prefix: app.cache
+ */
+@Component
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheProperties {
+
+    private Geocode geocode = new Geocode();
+    private Elevation elevation = new Elevation();
+    private Persistent persistent = new Persistent();
+
+    public Geocode getGeocode() {
+        return geocode;
+    }
+
+    public void setGeocode(Geocode geocode) {
+        this.geocode = geocode;
+    }
+
+    public Elevation getElevation() {
+        return elevation;
+    }
+
+    public void setElevation(Elevation elevation) {
+        this.elevation = elevation;
+    }
+
+    public Persistent getPersistent() {
+        return persistent;
+    }
+
+    public void setPersistent(Persistent persistent) {
+        this.persistent = persistent;
+    }
+
+    /**
+     * Address to coordinates cache settings.
+     */
+    public static class Geocode {
+        private boolean enabled = true;
+        private long maximumSize = 10000;
+        private Duration ttl = Duration.ofHours(24);
+        private Duration refreshAfter = Duration.ofHours(12);
+        private Duration negativeTtl = Duration.ofMinutes(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Duration getRefreshAfter() {
+            return refreshAfter;
+        }
+
+        public void setRefreshAfter(Duration refreshAfter) {
+            this.refreshAfter = refreshAfter;
+        }
+
+        public Duration getNegativeTtl() {
+            return negativeTtl;
+        }
+
+        public void setNegativeTtl(Duration negativeTtl) {
+            this.negativeTtl = negativeTtl;
+        }
+    }
+
+    /**
+     * Quantized coordinates to elevation cache settings.
+     */
+    public static class Elevation {
+        private boolean enabled = true;
+        private int capacity = 65536;
+        private double gridDegrees = 0.0002;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getGridDegrees() {
+            return gridDegrees;
+        }
+
+        public void setGridDegrees(double gridDegrees) {
+            this.gridDegrees = gridDegrees;
+        }
+    }
+
+    /**
+     * On-disk geocode and elevation store settings.
+     */
+    public static class Persistent {
+        private boolean enabled = false;
+        private String file = "cache/lookups.log";
+        private Duration maxAge = Duration.ofDays(30);
+        private int writeQueueCapacity = 10000;
+        private int maxEntries = 200000;
+        private Duration compactionInterval = Duration.ofHours(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        public void setFile(String file) {
+            this.file = file;
+        }
+
+        public Duration getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(Duration maxAge) {
+            this.maxAge = maxAge;
+        }
+
+        public int getWriteQueueCapacity() {
+            return writeQueueCapacity;
+        }
+
+        public void setWriteQueueCapacity(int writeQueueCapacity) {
+            this.writeQueueCapacity = writeQueueCapacity;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public Duration getCompactionInterval() {
+            return compactionInterval;
+        }
+
+        public void setCompactionInterval(Duration compactionInterval) {
+            this.compactionInterval = compactionInterval;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.oneday.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the circuit breakers guarding each upstream API.
+ * Prefix: app.circuit-breaker
+ */
+@Component
+@ConfigurationProperties(prefix = "app.circuit-breaker")
+public class CircuitBreakerProperties {
+
+    private boolean enabled = true;
+    private int windowSize = 20;
+    private int minimumCalls = 10;
+    private double failureRateThreshold = 50;
+    private double slowCallRateThreshold = 80;
+    private Duration slowCallDuration = Duration.ofSeconds(3);
+    private Duration openDuration = Duration.ofSeconds(30);
+    private int halfOpenCalls = 3;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    public void setMinimumCalls(int minimumCalls) {
+        this.minimumCalls = minimumCalls;
+    }
+
+    public double getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public void setFailureRateThreshold(double failureRateThreshold) {
+        this.failureRateThreshold = failureRateThreshold;
+    }
+
+    public double getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    public void setSlowCallRateThreshold(double slowCallRateThreshold) {
+        this.slowCallRateThreshold = slowCallRateThreshold;
+    }
+
+    public Duration getSlowCallDuration() {
+        return slowCallDuration;
+    }
+
+    public void setSlowCallDuration(Duration slowCallDuration) {
+        this.slowCallDuration = slowCallDuration;
+    }
+
+    public Duration getOpenDuration() {
+        return openDuration;
+    }
+
+    public void setOpenDuration(Duration openDuration) {
+        this.openDuration = openDuration;
+    }
+
+    public int getHalfOpenCalls() {
+        return halfOpenCalls;
+    }
+
+    public void setHalfOpenCalls(int halfOpenCalls) {
+        this.halfOpenCalls = halfOpenCalls;
+    }
+}
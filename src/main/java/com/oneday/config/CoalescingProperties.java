@@ -0,0 +1,34 @@
+package com.oneday.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for coalescing concurrent identical lookups.
+ * Prefix: app.coalescing
+ */
+@Component
+@ConfigurationProperties(prefix = "app.coalescing")
+public class CoalescingProperties {
+
+    private boolean enabled = true;
+    private Duration maxWait = Duration.ofSeconds(10);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+}
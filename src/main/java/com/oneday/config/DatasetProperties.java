@@ -13,6 +13,7 @@ public class DatasetProperties {
 
     private String temperatures;
     private String offsets;
+    private String postalCentroids;
 
     public String getTemperatures() {
         return temperatures;
@@ -29,5 +30,12 @@ public class DatasetProperties {
     public void setOffsets(String offsets) {
         this.offsets = offsets;
     }
-}
 
+    public String getPostalCentroids() {
+        return postalCentroids;
+    }
+
+    public void setPostalCentroids(String postalCentroids) {
+        this.postalCentroids = postalCentroids;
+    }
+}
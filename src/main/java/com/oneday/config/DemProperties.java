@@ -0,0 +1,41 @@
+package com.oneday.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the offline elevation model (SRTM .hgt tiles).
+ * Prefix: app.dem
+ */
+@Component
+@ConfigurationProperties(prefix = "app.dem")
+public class DemProperties {
+
+    private boolean enabled = false;
+    private String directory;
+    private int maxOpenTiles = 16;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public int getMaxOpenTiles() {
+        return maxOpenTiles;
+    }
+
+    public void setMaxOpenTiles(int maxOpenTiles) {
+        this.maxOpenTiles = maxOpenTiles;
+    }
+}
@@ -0,0 +1,61 @@
+package com.oneday.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for batching elevation lookups into multi-location requests.
+ * Prefix: app.elevation-batch
+ */
+@Component
+@ConfigurationProperties(prefix = "app.elevation-batch")
+public class ElevationBatchProperties {
+
+    private boolean enabled = false;
+    private int maxSize = 100;
+    private Duration window = Duration.ofMillis(20);
+    private Duration maxWait = Duration.ofSeconds(10);
+    private int maxConcurrentSends = 4;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    public int getMaxConcurrentSends() {
+        return maxConcurrentSends;
+    }
+
+    public void setMaxConcurrentSends(int maxConcurrentSends) {
+        this.maxConcurrentSends = maxConcurrentSends;
+    }
+}
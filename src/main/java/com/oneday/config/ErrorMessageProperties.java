@@ -18,6 +18,10 @@ public class ErrorMessageProperties {
     private String altitudeExceed;
     private String invalidElevation;
     private String addressPostalCodeRequired;
+    private String batchSize;
+    private String postalCentroidNotFound;
+    private String postalPrecisionUnavailable;
+    private String malformedStream;
 
     public String getValidation() {
         return validation;
@@ -74,5 +78,36 @@ public class ErrorMessageProperties {
     public void setAddressPostalCodeRequired(String addressPostalCodeRequired) {
         this.addressPostalCodeRequired = addressPostalCodeRequired;
     }
-}
 
+    public String getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(String batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public String getPostalCentroidNotFound() {
+        return postalCentroidNotFound;
+    }
+
+    public void setPostalCentroidNotFound(String postalCentroidNotFound) {
+        this.postalCentroidNotFound = postalCentroidNotFound;
+    }
+
+    public String getPostalPrecisionUnavailable() {
+        return postalPrecisionUnavailable;
+    }
+
+    public void setPostalPrecisionUnavailable(String postalPrecisionUnavailable) {
+        this.postalPrecisionUnavailable = postalPrecisionUnavailable;
+    }
+
+    public String getMalformedStream() {
+        return malformedStream;
+    }
+
+    public void setMalformedStream(String malformedStream) {
+        this.malformedStream = malformedStream;
+    }
+}
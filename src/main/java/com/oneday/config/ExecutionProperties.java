@@ -0,0 +1,27 @@
+package com.oneday.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the thread model.
+ * Prefix: app.execution
+ */
+@Component
+@ConfigurationProperties(prefix = "app.execution")
+public class ExecutionProperties {
+
+    /**
+     * Run request handling and lookups on virtual threads. Requires a Java 21+ runtime;
+     * ignored with a warning on older runtimes.
+     */
+    private boolean virtualThreads = false;
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+}
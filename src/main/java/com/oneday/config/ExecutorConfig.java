@@ -0,0 +1,68 @@
+package com.oneday.config;
+
+import com.oneday.util.LookupPriority;
+import com.oneday.util.TraceContext;
+import com.oneday.util.VirtualThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executors used to handle requests and resolve lookups off the request thread.
+ * With app.execution.virtual-threads=true on a Java 21+ runtime, both run on virtual threads.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutorConfig.class);
+
+    /**
+     * Create the executor resolving batch items in parallel.
+     * Its pool size caps the number of items resolved concurrently across all batches.
+     * Tasks run in the trace context, logging MDC and lookup priority of the thread that submitted them.
+     *
+     * @return lookup executor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor lookupExecutor(BatchProperties batchProperties, ExecutionProperties executionProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(batchProperties.getMaxConcurrency());
+        executor.setMaxPoolSize(batchProperties.getMaxConcurrency());
+        executor.setThreadNamePrefix("lookup-");
+        executor.setTaskDecorator(task -> LookupPriority.current().wrap(TraceContext.wrap(task)));
+        if (useVirtualThreads(executionProperties)) {
+            executor.setThreadFactory(VirtualThreads.factory("lookup-virtual-"));
+        }
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Run Tomcat request handling on virtual threads instead of the platform worker pool.
+     *
+     * @return protocol handler customizer, a no-op unless virtual threads are enabled and supported
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutionProperties executionProperties) {
+        if (!useVirtualThreads(executionProperties)) {
+            return protocolHandler -> { };
+        }
+        log.info("Handling requests on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(VirtualThreads.newThreadPerTaskExecutor());
+    }
+
+    private boolean useVirtualThreads(ExecutionProperties executionProperties) {
+        if (!executionProperties.isVirtualThreads()) {
+            return false;
+        }
+        if (!VirtualThreads.isSupported()) {
+            log.warn("app.execution.virtual-threads is enabled but Java {} has no virtual threads; using platform threads",
+                Runtime.version().feature());
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,32 @@
+package com.oneday.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the local gazetteer geocoder.
+ * Prefix: app.gazetteer
+ */
+@Component
+@ConfigurationProperties(prefix = "app.gazetteer")
+public class GazetteerProperties {
+
+    private boolean enabled = false;
+    private String location;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+}
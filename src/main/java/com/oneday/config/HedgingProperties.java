@@ -0,0 +1,79 @@
+package com.oneday.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for hedged elevation lookups.
+ * Prefix: app.hedging
+ */
+@Component
+@ConfigurationProperties(prefix = "app.hedging")
+public class HedgingProperties {
+
+    private boolean enabled = false;
+    private double percentile = 95;
+    private Duration initialDelay = Duration.ofMillis(500);
+    private Duration minDelay = Duration.ofMillis(20);
+    private double budgetPercent = 10;
+    private int budgetBurst = 10;
+    private int sampleSize = 256;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public void setPercentile(double percentile) {
+        this.percentile = percentile;
+    }
+
+    public Duration getInitialDelay() {
+        return initialDelay;
+    }
+
+    public void setInitialDelay(Duration initialDelay) {
+        this.initialDelay = initialDelay;
+    }
+
+    public Duration getMinDelay() {
+        return minDelay;
+    }
+
+    public void setMinDelay(Duration minDelay) {
+        this.minDelay = minDelay;
+    }
+
+    public double getBudgetPercent() {
+        return budgetPercent;
+    }
+
+    public void setBudgetPercent(double budgetPercent) {
+        this.budgetPercent = budgetPercent;
+    }
+
+    public int getBudgetBurst() {
+        return budgetBurst;
+    }
+
+    public void setBudgetBurst(int budgetBurst) {
+        this.budgetBurst = budgetBurst;
+    }
+
+    public int getSampleSize() {
+        return sampleSize;
+    }
+
+    public void setSampleSize(int sampleSize) {
+        this.sampleSize = sampleSize;
+    }
+}
@@ -0,0 +1,110 @@
+package com.oneday.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP clients used for the upstream maps APIs: a pooled, keep-alive blocking client
+ * behind the RestTemplate, and a non-blocking client for asynchronous lookups.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    /**
+     * Create the connection pool shared by all upstream calls.
+     *
+     * @return pooling connection manager
+     */
+    @Bean
+    public PoolingHttpClientConnectionManager connectionManager(ApiProperties apiProperties, MeterRegistry meterRegistry) {
+        ApiProperties.Http http = apiProperties.getHttp();
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+            http.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(http.getMaxConnectionsTotal());
+        connectionManager.setDefaultMaxPerRoute(http.getMaxConnectionsPerHost());
+        // Re-check connections that sat idle, so stale keep-alive sockets are not reused
+        connectionManager.setValidateAfterInactivity(1000);
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "upstream").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    /**
+     * Create the HTTP client with explicit timeouts, keep-alive and idle connection eviction.
+     *
+     * @return pooled HTTP client
+     */
+    @Bean
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager connectionManager, ApiProperties apiProperties) {
+        ApiProperties.Http http = apiProperties.getHttp();
+        RequestConfig requestConfig = RequestConfig.custom()
+            .setConnectTimeout((int) http.getConnectTimeout().toMillis())
+            .setSocketTimeout((int) http.getReadTimeout().toMillis())
+            .setConnectionRequestTimeout((int) http.getConnectionRequestTimeout().toMillis())
+            .build();
+
+        return HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(requestConfig)
+            .setKeepAliveStrategy(keepAliveStrategy(http.getKeepAlive().toMillis()))
+            .evictExpiredConnections()
+            .evictIdleConnections(http.getIdleEviction().toMillis(), TimeUnit.MILLISECONDS)
+            .setUserAgent(apiProperties.getUserAgent())
+            .build();
+    }
+
+    /**
+     * Create the request factory used by the RestTemplate.
+     *
+     * @return HttpComponents-backed request factory
+     */
+    @Bean
+    public ClientHttpRequestFactory clientHttpRequestFactory(CloseableHttpClient httpClient) {
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    /**
+     * Create the non-blocking HTTP client for asynchronous lookups.
+     * A small fixed pool of upstream-async-N threads runs response callbacks; waiting on the network holds no thread.
+     *
+     * @return non-blocking HTTP client
+     */
+    @Bean
+    public HttpClient asyncHttpClient(ApiProperties apiProperties) {
+        ApiProperties.Http http = apiProperties.getHttp();
+        AtomicInteger threadCount = new AtomicInteger();
+        return HttpClient.newBuilder()
+            .connectTimeout(http.getConnectTimeout())
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .executor(Executors.newFixedThreadPool(http.getAsyncThreads(), runnable -> {
+                Thread thread = new Thread(runnable, "upstream-async-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }))
+            .build();
+    }
+
+    /**
+     * Honour the server's Keep-Alive header, otherwise keep connections for the configured time.
+     */
+    private ConnectionKeepAliveStrategy keepAliveStrategy(long keepAliveMillis) {
+        return (response, context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAliveMillis) : keepAliveMillis;
+        };
+    }
+}
@@ -0,0 +1,283 @@
+package com.oneday.config;
+
+import com.oneday.model.Gazetteer;
+import com.oneday.service.BatchingElevationMapService;
+import com.oneday.service.CachingGeocodeMapService;
+import com.oneday.service.CircuitBreakerMapService;
+import com.oneday.service.CoalescingMapService;
+import com.oneday.service.DemTileElevationMapService;
+import com.oneday.service.ElevationCachingMapService;
+import com.oneday.service.GazetteerGeocodeMapService;
+import com.oneday.service.HedgingElevationMapService;
+import com.oneday.service.InstrumentedMapService;
+import com.oneday.service.MapOsmService;
+import com.oneday.service.MapService;
+import com.oneday.service.PersistentCacheMapService;
+import com.oneday.service.PersistentLookupStore;
+import com.oneday.service.RateLimitedMapService;
+import com.oneday.service.TracingMapService;
+import com.oneday.util.CircuitBreaker;
+import com.oneday.util.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.opentelemetry.api.trace.Tracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assembles the {@link MapService} used by the application.
+ * The OSM-backed service is wrapped in the decorators enabled by configuration.
+ */
+@Configuration
+public class MapServiceConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(MapServiceConfig.class);
+
+    /**
+     * Create the primary MapService: the OSM service wrapped in the enabled decorators.
+     *
+     * @return decorated MapService instance
+     */
+    @Bean
+    @Primary
+    public MapService mapService(MapOsmService mapOsmService, CacheProperties cacheProperties,
+                                 CoalescingProperties coalescingProperties,
+                                 ElevationBatchProperties elevationBatchProperties, DemProperties demProperties,
+                                 GazetteerProperties gazetteerProperties, ResourceLoader resourceLoader,
+                                 ObjectProvider<PersistentLookupStore> persistentStore,
+                                 RateLimitProperties rateLimitProperties, CircuitBreakerProperties circuitBreakerProperties,
+                                 HedgingProperties hedgingProperties, ApiProperties apiProperties,
+                                 @Qualifier("lookupExecutor") Executor lookupExecutor,
+                                 ErrorMessageProperties errorMessages, MeterRegistry meterRegistry, Tracer tracer) {
+        MapService mapService = mapOsmService;
+        String geocodeHost = URI.create(apiProperties.getNominatimUrl()).getHost();
+        String elevationHost = URI.create(apiProperties.getElevationUrl()).getHost();
+
+        // Traces and times the calls that actually reach the upstream hosts
+        mapService = new TracingMapService(mapService, tracer, geocodeHost, elevationHost, errorMessages);
+        mapService = new InstrumentedMapService(mapService, meterRegistry, "upstream.requests",
+            Tags.of("stage", "geocode", "host", geocodeHost), Tags.of("stage", "elevation", "host", elevationHost),
+            errorMessages);
+
+        // Innermost, so the breakers only see upstream latency and errors, not time spent rate limited.
+        // The rate limiter checks them before waiting for a token, so an open breaker still fails fast
+        CircuitBreaker geocodeBreaker = null;
+        CircuitBreaker elevationBreaker = null;
+        if (circuitBreakerProperties.isEnabled()) {
+            geocodeBreaker = createCircuitBreaker(geocodeHost, circuitBreakerProperties, meterRegistry);
+            elevationBreaker = createCircuitBreaker(elevationHost, circuitBreakerProperties, meterRegistry);
+            mapService = new CircuitBreakerMapService(mapService, geocodeBreaker, elevationBreaker, errorMessages);
+        }
+
+        Map<String, TokenBucketRateLimiter> limiters = rateLimitProperties.isEnabled()
+            ? createRateLimiters(rateLimitProperties, meterRegistry) : Map.of();
+
+        // Inside the rate limiter, which only the primary lookup goes through:
+        // a hedge takes a token from the elevation host's limiter itself, or is skipped
+        if (hedgingProperties.isEnabled()) {
+            HedgingElevationMapService hedging = new HedgingElevationMapService(mapService, hedgingProperties,
+                limiters.get(elevationHost), errorMessages);
+            bindHedgingMetrics(meterRegistry, hedging);
+            mapService = hedging;
+        }
+
+        if (rateLimitProperties.isEnabled()) {
+            if (!limiters.containsKey(geocodeHost)) {
+                log.warn("Rate limiting is enabled but no limit is configured for geocode host {} (configured: {}); "
+                    + "geocode calls are not rate limited", geocodeHost, limiters.keySet());
+            }
+            mapService = new RateLimitedMapService(mapService, limiters.get(geocodeHost), limiters.get(elevationHost),
+                geocodeBreaker, elevationBreaker, errorMessages);
+        }
+
+        if (elevationBatchProperties.isEnabled()) {
+            mapService = new BatchingElevationMapService(mapService, elevationBatchProperties, errorMessages);
+        }
+
+        // Geocode cache refreshes skip the persistent store, which would answer them with the stale result
+        MapService geocodeRefresher = mapService;
+        PersistentLookupStore store = persistentStore.getIfAvailable();
+        if (store != null) {
+            PersistentCacheMapService persistentCache = new PersistentCacheMapService(mapService, store, errorMessages);
+            geocodeRefresher = persistentCache.writeThrough();
+            mapService = persistentCache;
+        }
+
+        if (demProperties.isEnabled()) {
+            mapService = new DemTileElevationMapService(mapService, demProperties, errorMessages);
+        }
+
+        if (cacheProperties.getElevation().isEnabled()) {
+            ElevationCachingMapService elevationCache =
+                new ElevationCachingMapService(mapService, cacheProperties.getElevation(), errorMessages);
+            bindElevationCacheMetrics(meterRegistry, elevationCache);
+            mapService = elevationCache;
+        }
+
+        if (cacheProperties.getGeocode().isEnabled()) {
+            CachingGeocodeMapService geocodeCache =
+                new CachingGeocodeMapService(mapService, geocodeRefresher, cacheProperties.getGeocode(), lookupExecutor,
+                    errorMessages);
+            CaffeineCacheMetrics.monitor(meterRegistry, geocodeCache.getCache(), "geocode");
+            mapService = geocodeCache;
+        }
+
+        // Outside the caches, so the call leading a flight fills them before the flight ends
+        // and identical lookups arriving in between cannot miss both
+        if (coalescingProperties.isEnabled()) {
+            mapService = new CoalescingMapService(mapService, coalescingProperties, errorMessages);
+        }
+
+        // Outermost, so addresses answered locally do not take up geocode cache capacity
+        if (gazetteerProperties.isEnabled()) {
+            GazetteerGeocodeMapService gazetteer = new GazetteerGeocodeMapService(
+                mapService, loadGazetteer(resourceLoader.getResource(gazetteerProperties.getLocation())), errorMessages);
+            bindGazetteerMetrics(meterRegistry, gazetteer);
+            mapService = gazetteer;
+        }
+
+        // Times each stage as seen by the request, including time saved by the caches
+        return new InstrumentedMapService(mapService, meterRegistry, "lookup.stage",
+            Tags.of("stage", "geocode"), Tags.of("stage", "elevation"), errorMessages);
+    }
+
+    /**
+     * Register counters of primary lookups, hedges sent, hedges that won and hedges skipped
+     * for lack of budget or rate limit tokens, and the current hedge delay.
+     */
+    private void bindHedgingMetrics(MeterRegistry registry, HedgingElevationMapService hedging) {
+        FunctionCounter.builder("elevation.hedge.primaries", hedging, HedgingElevationMapService::primaryCount)
+            .register(registry);
+        FunctionCounter.builder("elevation.hedge.sent", hedging, HedgingElevationMapService::hedgeCount)
+            .register(registry);
+        FunctionCounter.builder("elevation.hedge.wins", hedging, HedgingElevationMapService::hedgeWinCount)
+            .register(registry);
+        FunctionCounter.builder("elevation.hedge.budget.exhausted", hedging,
+                HedgingElevationMapService::budgetExhaustedCount)
+            .register(registry);
+        FunctionCounter.builder("elevation.hedge.rate.limited", hedging,
+                HedgingElevationMapService::rateLimitedCount)
+            .register(registry);
+        TimeGauge.builder("elevation.hedge.delay", hedging, TimeUnit.NANOSECONDS,
+                HedgingElevationMapService::hedgeDelayNanos)
+            .register(registry);
+    }
+
+    /**
+     * Create the circuit breaker of an upstream host, with state and rejection meters.
+     * The state gauge reads 0 when closed, 1 when open and 2 when half-open.
+     */
+    private CircuitBreaker createCircuitBreaker(String host, CircuitBreakerProperties properties, MeterRegistry registry) {
+        CircuitBreaker breaker = new CircuitBreaker(host, properties.getWindowSize(), properties.getMinimumCalls(),
+            properties.getFailureRateThreshold(), properties.getSlowCallRateThreshold(),
+            properties.getSlowCallDuration(), properties.getOpenDuration(), properties.getHalfOpenCalls());
+        Gauge.builder("circuitbreaker.state", breaker, b -> b.getState().ordinal())
+            .tags("host", host).register(registry);
+        FunctionCounter.builder("circuitbreaker.rejected", breaker, CircuitBreaker::rejectedCount)
+            .tags("host", host).register(registry);
+        return breaker;
+    }
+
+    /**
+     * Create one rate limiter per configured upstream host, with queue depth, wait time and rejection meters.
+     */
+    private Map<String, TokenBucketRateLimiter> createRateLimiters(RateLimitProperties properties, MeterRegistry registry) {
+        Map<String, TokenBucketRateLimiter> limiters = new HashMap<>();
+        properties.getHosts().forEach((host, limit) -> {
+            TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(host, limit.getPermitsPerSecond(),
+                limit.getBurst(), limit.getMaxQueue(), limit.getMaxWait());
+            Gauge.builder("ratelimit.queue.depth", limiter, TokenBucketRateLimiter::queueDepth)
+                .tags("host", host).register(registry);
+            FunctionTimer.builder("ratelimit.wait", limiter, TokenBucketRateLimiter::grantedCount,
+                    TokenBucketRateLimiter::totalWaitNanos, TimeUnit.NANOSECONDS)
+                .tags("host", host).register(registry);
+            FunctionCounter.builder("ratelimit.rejected", limiter, TokenBucketRateLimiter::rejectedCount)
+                .tags("host", host).register(registry);
+            limiters.put(host, limiter);
+        });
+        return limiters;
+    }
+
+    /**
+     * Open the on-disk lookup store, warmed from the results persisted before the last restart.
+     * Closed on shutdown, writing out the queued results.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.cache.persistent", name = "enabled", havingValue = "true")
+    public PersistentLookupStore persistentLookupStore(CacheProperties cacheProperties, MeterRegistry meterRegistry) {
+        PersistentLookupStore store = new PersistentLookupStore(cacheProperties.getPersistent());
+        Gauge.builder("cache.size", store, PersistentLookupStore::geocodeCount)
+            .tags("cache", "geocode-store").register(meterRegistry);
+        Gauge.builder("cache.size", store, PersistentLookupStore::elevationCount)
+            .tags("cache", "elevation-store").register(meterRegistry);
+        FunctionCounter.builder("cache.store.dropped.writes", store, PersistentLookupStore::droppedWrites)
+            .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", store, PersistentLookupStore::evictionCount)
+            .tags("cache", "lookup-store").register(meterRegistry);
+        return store;
+    }
+
+    /**
+     * Register hit, miss, eviction and size meters for the elevation cache,
+     * using the same meter names as the Caffeine-backed caches.
+     */
+    private void bindElevationCacheMetrics(MeterRegistry registry, ElevationCachingMapService cache) {
+        FunctionCounter.builder("cache.gets", cache, ElevationCachingMapService::hitCount)
+            .tags("cache", "elevation", "result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", cache, ElevationCachingMapService::missCount)
+            .tags("cache", "elevation", "result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", cache, ElevationCachingMapService::evictionCount)
+            .tags("cache", "elevation").register(registry);
+        Gauge.builder("cache.size", cache, ElevationCachingMapService::size)
+            .tags("cache", "elevation").register(registry);
+    }
+
+    /**
+     * Load the gazetteer CSV, failing startup if it is enabled but unreadable.
+     */
+    private Gazetteer loadGazetteer(Resource resource) {
+        try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+            Gazetteer gazetteer = Gazetteer.load(reader);
+            log.info("Loaded {} gazetteer places from {}", gazetteer.size(), resource.getDescription());
+            return gazetteer;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load gazetteer from " + resource.getDescription(), e);
+        }
+    }
+
+    /**
+     * Register hit and miss counters and the hit ratio of the local gazetteer.
+     */
+    private void bindGazetteerMetrics(MeterRegistry registry, GazetteerGeocodeMapService gazetteer) {
+        FunctionCounter.builder("gazetteer.lookups", gazetteer, GazetteerGeocodeMapService::hitCount)
+            .tags("result", "hit").register(registry);
+        FunctionCounter.builder("gazetteer.lookups", gazetteer, GazetteerGeocodeMapService::missCount)
+            .tags("result", "miss").register(registry);
+        Gauge.builder("gazetteer.hit.ratio", gazetteer, GazetteerGeocodeMapService::hitRate)
+            .register(registry);
+    }
+}
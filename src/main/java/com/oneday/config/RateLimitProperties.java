@@ -0,0 +1,78 @@
+package com.oneday.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration properties for rate limiting upstream API calls, per upstream host.
+ * Prefix: app.rate-limit
+ */
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    private Map<String, Limit> hosts = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Map<String, Limit> getHosts() {
+        return hosts;
+    }
+
+    public void setHosts(Map<String, Limit> hosts) {
+        this.hosts = hosts;
+    }
+
+    /**
+     * Token bucket and wait queue settings for one upstream host.
+     */
+    public static class Limit {
+        private double permitsPerSecond = 1;
+        private int burst = 1;
+        private int maxQueue = 100;
+        private Duration maxWait = Duration.ofSeconds(10);
+
+        public double getPermitsPerSecond() {
+            return permitsPerSecond;
+        }
+
+        public void setPermitsPerSecond(double permitsPerSecond) {
+            this.permitsPerSecond = permitsPerSecond;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+
+        public int getMaxQueue() {
+            return maxQueue;
+        }
+
+        public void setMaxQueue(int maxQueue) {
+            this.maxQueue = maxQueue;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.oneday.config;
+
+import com.oneday.util.FileSpanExporter;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SdkTracerProviderBuilder;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Sets up OpenTelemetry tracing: W3C trace context propagation, ratio-based sampling
+ * that follows the caller's decision, and the configured span exporter.
+ */
+@Configuration
+public class TracingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(TracingConfig.class);
+    private static final String INSTRUMENTATION_NAME = "com.oneday";
+
+    /**
+     * Create the OpenTelemetry instance, a no-op one when tracing is disabled.
+     * The SDK is closed with the application context, flushing the spans still queued.
+     *
+     * @return OpenTelemetry instance
+     */
+    @Bean
+    public OpenTelemetry openTelemetry(TracingProperties properties) {
+        if (!properties.isEnabled()) {
+            return OpenTelemetry.noop();
+        }
+
+        SdkTracerProviderBuilder tracerProvider = SdkTracerProvider.builder()
+            .setResource(Resource.getDefault().merge(Resource.create(
+                Attributes.of(AttributeKey.stringKey("service.name"), properties.getServiceName()))))
+            .setSampler(Sampler.parentBased(Sampler.traceIdRatioBased(properties.getSampleRatio())));
+        SpanExporter exporter = createExporter(properties);
+        if (exporter != null) {
+            tracerProvider.addSpanProcessor(BatchSpanProcessor.builder(exporter).build());
+        }
+
+        return OpenTelemetrySdk.builder()
+            .setTracerProvider(tracerProvider.build())
+            .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
+            .build();
+    }
+
+    /**
+     * @return tracer for the application's own spans
+     */
+    @Bean
+    public Tracer tracer(OpenTelemetry openTelemetry) {
+        return openTelemetry.getTracer(INSTRUMENTATION_NAME);
+    }
+
+    private SpanExporter createExporter(TracingProperties properties) {
+        switch (properties.getExporter()) {
+            case OTLP:
+                log.info("Exporting spans to {}", properties.getOtlpEndpoint());
+                return OtlpHttpSpanExporter.builder().setEndpoint(properties.getOtlpEndpoint()).build();
+            case FILE:
+                log.info("Writing spans to {}", properties.getFile());
+                try {
+                    return new FileSpanExporter(Path.of(properties.getFile()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to open span file " + properties.getFile(), e);
+                }
+            default:
+                return null;
+        }
+    }
+}
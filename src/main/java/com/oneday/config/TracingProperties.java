@@ -0,0 +1,80 @@
+package com.oneday.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for request tracing.
+ * Prefix: app.tracing
+ */
+@Component
+@ConfigurationProperties(prefix = "app.tracing")
+public class TracingProperties {
+
+    /**
+     * Where finished spans are sent.
+     */
+    public enum Exporter {
+        /** Spans are only used for trace IDs in logs and error responses. */
+        NONE,
+        /** OTLP over HTTP to a collector. */
+        OTLP,
+        /** One JSON object per span, appended to a file. */
+        FILE
+    }
+
+    private boolean enabled = true;
+    private String serviceName = "oneday-java";
+    private Exporter exporter = Exporter.NONE;
+    private String otlpEndpoint = "http://localhost:4318/v1/traces";
+    private String file = "traces/spans.jsonl";
+    private double sampleRatio = 1.0;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public void setServiceName(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    public Exporter getExporter() {
+        return exporter;
+    }
+
+    public void setExporter(Exporter exporter) {
+        this.exporter = exporter;
+    }
+
+    public String getOtlpEndpoint() {
+        return otlpEndpoint;
+    }
+
+    public void setOtlpEndpoint(String otlpEndpoint) {
+        this.otlpEndpoint = otlpEndpoint;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    public double getSampleRatio() {
+        return sampleRatio;
+    }
+
+    public void setSampleRatio(double sampleRatio) {
+        this.sampleRatio = sampleRatio;
+    }
+}
@@ -2,12 +2,18 @@ package com.oneday.controller;
 
 import com.oneday.dto.AddressRequest;
 import com.oneday.dto.AltitudeTemperatureResponse;
-import com.oneday.service.MapService;
-import com.oneday.service.TemperatureService;
+import com.oneday.dto.BatchItemResponse;
+import com.oneday.service.AltitudeTemperatureService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST controller for address-based altitude and temperature queries.
@@ -16,12 +22,10 @@ import javax.validation.Valid;
 @RequestMapping("/api/v1")
 public class AddressController {
 
-    private final TemperatureService temperatureService;
-    private final MapService mapService;
+    private final AltitudeTemperatureService altitudeTemperatureService;
 
-    public AddressController(TemperatureService temperatureService, MapService mapService) {
-        this.temperatureService = temperatureService;
-        this.mapService = mapService;
+    public AddressController(AltitudeTemperatureService altitudeTemperatureService) {
+        this.altitudeTemperatureService = altitudeTemperatureService;
     }
 
     /**
@@ -32,19 +36,48 @@ public class AddressController {
      */
     @PostMapping("/altitude-temp")
     public ResponseEntity<AltitudeTemperatureResponse> getAltitudeAndTemperature(@Valid @RequestBody AddressRequest request) {
-        int altitude;
-        try {
-            altitude = mapService.getAltitudeMeters(request.getAddress());
-        } catch (IllegalArgumentException e) {
-            // If address cannot be geocoded, return 0 altitude
-            altitude = 0;
-        }
-
-        double temp = temperatureService.getStandardMinTemperature(request.getPostalCode(), request.getAddress());
-
-        AltitudeTemperatureResponse response = new AltitudeTemperatureResponse(altitude, temp);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(altitudeTemperatureService.resolve(request));
     }
-}
 
+    /**
+     * Get altitude and standard minimum temperature for a given address and postal code,
+     * releasing the servlet thread while the remote lookups are in flight.
+     *
+     * @param request DTO containing address and postalCode
+     * @return Deferred response with altitude in meters and temperature in Celsius
+     */
+    @PostMapping("/altitude-temp/async")
+    public CompletableFuture<ResponseEntity<AltitudeTemperatureResponse>> getAltitudeAndTemperatureAsync(
+            @Valid @RequestBody AddressRequest request) {
+        return altitudeTemperatureService.resolveAsync(request).thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Get altitude and standard minimum temperature for a batch of addresses.
+     * Items are resolved in parallel; invalid or failing items are reported per item.
+     *
+     * @param requests list of DTOs containing address and postalCode
+     * @return one result per request, in request order
+     */
+    @PostMapping("/altitude-temp/batch")
+    public ResponseEntity<List<BatchItemResponse>> getAltitudeAndTemperatureBatch(@RequestBody List<AddressRequest> requests) {
+        return ResponseEntity.ok(altitudeTemperatureService.resolveBatch(requests));
+    }
+
+    /**
+     * Get altitude and standard minimum temperature for a stream of addresses of any size.
+     * Reads one request per line and writes one result per line as items complete, so results are
+     * in completion order and carry the index of their request. Invalid or failing items are reported per item.
+     *
+     * @param request newline-delimited JSON DTOs containing address and postalCode
+     * @param response newline-delimited JSON results
+     */
+    @PostMapping(value = "/altitude-temp/stream",
+        consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void getAltitudeAndTemperatureStream(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        altitudeTemperatureService.resolveStream(request.getInputStream(), response.getOutputStream());
+    }
+}
 
@@ -0,0 +1,101 @@
+package com.oneday.controller;
+
+import com.oneday.util.TraceContext;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * Records a server span for each request and makes it current while the request is handled.
+ * An incoming W3C {@code traceparent} header makes the span part of the caller's trace.
+ * For asynchronous requests the span stays open until the async dispatch has written the response.
+ * The trace and span IDs are put in the logging MDC for the duration of each dispatch.
+ */
+@Component
+public class TracingFilter extends OncePerRequestFilter {
+
+    private static final String SPAN_ATTRIBUTE = TracingFilter.class.getName() + ".span";
+
+    private static final TextMapGetter<HttpServletRequest> HEADERS = new TextMapGetter<>() {
+        @Override
+        public Iterable<String> keys(HttpServletRequest request) {
+            return Collections.list(request.getHeaderNames());
+        }
+
+        @Override
+        public String get(HttpServletRequest request, String name) {
+            return request == null ? null : request.getHeader(name);
+        }
+    };
+
+    private final OpenTelemetry openTelemetry;
+    private final Tracer tracer;
+
+    public TracingFilter(OpenTelemetry openTelemetry, Tracer tracer) {
+        this.openTelemetry = openTelemetry;
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // The async dispatch writes the response, so it runs in the span and ends it
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Span span = (Span) request.getAttribute(SPAN_ATTRIBUTE);
+        if (span == null) {
+            span = startSpan(request);
+            request.setAttribute(SPAN_ATTRIBUTE, span);
+        }
+
+        try (Scope ignored = span.makeCurrent()) {
+            TraceContext.putInMdc(span.getSpanContext());
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR);
+            throw e;
+        } finally {
+            TraceContext.removeFromMdc();
+            if (!request.isAsyncStarted()) {
+                endSpan(span, response);
+            }
+        }
+    }
+
+    private Span startSpan(HttpServletRequest request) {
+        Context parent = openTelemetry.getPropagators().getTextMapPropagator()
+            .extract(Context.root(), request, HEADERS);
+        return tracer.spanBuilder(request.getMethod() + " " + request.getRequestURI())
+            .setParent(parent)
+            .setSpanKind(SpanKind.SERVER)
+            .setAttribute("http.request.method", request.getMethod())
+            .setAttribute("url.path", request.getRequestURI())
+            .startSpan();
+    }
+
+    private void endSpan(Span span, HttpServletResponse response) {
+        span.setAttribute("http.response.status_code", response.getStatus());
+        if (response.getStatus() >= 500) {
+            span.setStatus(StatusCode.ERROR);
+        }
+        span.end();
+    }
+}
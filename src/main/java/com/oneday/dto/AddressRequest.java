@@ -1,5 +1,10 @@
 package com.oneday.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.NotBlank;
 
 /**
@@ -9,12 +14,32 @@ import javax.validation.constraints.NotBlank;
  */
 
 public class AddressRequest {
-    @NotBlank(message = "address or postalCode must be provided")
+
+    /**
+     * How precisely the altitude is resolved.
+     */
+    public enum Precision {
+        /** Geocode the address and look up the elevation at its coordinates. */
+        ADDRESS,
+        /** Use the precomputed elevation of the postal code centroid, with no remote calls. */
+        POSTAL
+    }
+
     private String address;
 
     @NotBlank(message = "address or postalCode must be provided")
     private String postalCode;
 
+    @DecimalMin(value = "-90", message = "lat must be between -90 and 90")
+    @DecimalMax(value = "90", message = "lat must be between -90 and 90")
+    private Double lat;
+
+    @DecimalMin(value = "-180", message = "lon must be between -180 and 180")
+    @DecimalMax(value = "180", message = "lon must be between -180 and 180")
+    private Double lon;
+
+    private Precision precision = Precision.ADDRESS;
+
     public AddressRequest() {}
 
     public AddressRequest(String address, String postalCode) {
@@ -37,4 +62,51 @@ public class AddressRequest {
     public void setPostalCode(String postalCode) {
         this.postalCode = postalCode;
     }
+
+    public Double getLat() {
+        return lat;
+    }
+
+    public void setLat(Double lat) {
+        this.lat = lat;
+    }
+
+    public Double getLon() {
+        return lon;
+    }
+
+    public void setLon(Double lon) {
+        this.lon = lon;
+    }
+
+    /**
+     * @return true if the caller supplied coordinates, so the address need not be geocoded
+     */
+    @JsonIgnore
+    public boolean hasCoordinates() {
+        return lat != null && lon != null;
+    }
+
+    public Precision getPrecision() {
+        return precision;
+    }
+
+    public void setPrecision(Precision precision) {
+        this.precision = precision == null ? Precision.ADDRESS : precision;
+    }
+
+    /**
+     * The address is only needed when the altitude is resolved from it.
+     */
+    @JsonIgnore
+    @AssertTrue(message = "address or postalCode must be provided")
+    public boolean isAddressProvidedWhenRequired() {
+        return precision == Precision.POSTAL || hasCoordinates() || (address != null && !address.isBlank());
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "lat and lon must be provided together")
+    public boolean isCoordinatePairComplete() {
+        return (lat == null) == (lon == null);
+    }
 }
@@ -1,12 +1,17 @@
 package com.oneday.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 /**
  * Response DTO for altitude and temperature data.
+ * A degraded response was computed with 0 altitude because an upstream was unavailable.
  */
 public class AltitudeTemperatureResponse {
 
     private int altitude;
     private double standardMinTemperature;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean degraded;
 
     public AltitudeTemperatureResponse() {}
 
@@ -15,6 +20,15 @@ public class AltitudeTemperatureResponse {
         this.standardMinTemperature = standardMinTemperature;
     }
 
+    /**
+     * Response computed with 0 altitude because the altitude upstreams were unavailable.
+     */
+    public static AltitudeTemperatureResponse degraded(double standardMinTemperature) {
+        AltitudeTemperatureResponse response = new AltitudeTemperatureResponse(0, standardMinTemperature);
+        response.degraded = Boolean.TRUE;
+        return response;
+    }
+
     public int getAltitude() {
         return altitude;
     }
@@ -30,5 +44,12 @@ public class AltitudeTemperatureResponse {
     public void setStandardMinTemperature(double standardMinTemperature) {
         this.standardMinTemperature = standardMinTemperature;
     }
-}
 
+    public Boolean getDegraded() {
+        return degraded;
+    }
+
+    public void setDegraded(Boolean degraded) {
+        this.degraded = degraded;
+    }
+}
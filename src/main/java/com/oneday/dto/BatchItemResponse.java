@@ -0,0 +1,75 @@
+package com.oneday.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Response DTO for a single item of a batch lookup.
+ * Holds either the altitude and temperature, or the error for that item.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResponse {
+
+    private int index;
+    private Integer altitude;
+    private Double standardMinTemperature;
+    private Boolean degraded;
+    private ErrorResponse error;
+
+    public BatchItemResponse() {}
+
+    public static BatchItemResponse success(int index, AltitudeTemperatureResponse response) {
+        BatchItemResponse item = new BatchItemResponse();
+        item.index = index;
+        item.altitude = response.getAltitude();
+        item.standardMinTemperature = response.getStandardMinTemperature();
+        item.degraded = response.getDegraded();
+        return item;
+    }
+
+    public static BatchItemResponse failure(int index, ErrorResponse error) {
+        BatchItemResponse item = new BatchItemResponse();
+        item.index = index;
+        item.error = error;
+        return item;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Integer getAltitude() {
+        return altitude;
+    }
+
+    public void setAltitude(Integer altitude) {
+        this.altitude = altitude;
+    }
+
+    public Double getStandardMinTemperature() {
+        return standardMinTemperature;
+    }
+
+    public void setStandardMinTemperature(Double standardMinTemperature) {
+        this.standardMinTemperature = standardMinTemperature;
+    }
+
+    public Boolean getDegraded() {
+        return degraded;
+    }
+
+    public void setDegraded(Boolean degraded) {
+        this.degraded = degraded;
+    }
+
+    public ErrorResponse getError() {
+        return error;
+    }
+
+    public void setError(ErrorResponse error) {
+        this.error = error;
+    }
+}
@@ -1,12 +1,17 @@
 package com.oneday.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 /**
  * Standard error response DTO.
+ * Carries the trace ID of the failed request, so it can be looked up in the logs and traces.
  */
 public class ErrorResponse {
 
     private String error;
     private String message;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String traceId;
 
     public ErrorResponse() {}
 
@@ -34,5 +39,13 @@ public class ErrorResponse {
     public void setMessage(String message) {
         this.message = message;
     }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public void setTraceId(String traceId) {
+        this.traceId = traceId;
+    }
 }
 
@@ -0,0 +1,57 @@
+package com.oneday.exception;
+
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.dto.ErrorResponse;
+import com.oneday.util.TraceContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds {@link ErrorResponse} bodies, so endpoints reporting errors per item
+ * use the same shape as {@link GlobalExceptionHandler}.
+ */
+@Component
+public class ErrorResponseFactory {
+
+    private final ErrorMessageProperties errorMessages;
+
+    public ErrorResponseFactory(ErrorMessageProperties errorMessages) {
+        this.errorMessages = errorMessages;
+    }
+
+    /**
+     * Error response for validation errors from business logic.
+     */
+    public ErrorResponse fromIllegalArgument(IllegalArgumentException e) {
+        String exceptionMessage = e.getMessage();
+
+        // For postal code errors, return message in error field
+        if (exceptionMessage != null && exceptionMessage.contains("Postal Code")) {
+            return withTraceId(new ErrorResponse(exceptionMessage));
+        }
+
+        // For other errors (like altitude), return with both error and message fields
+        return withTraceId(new ErrorResponse(errorMessages.getValidation(), exceptionMessage));
+    }
+
+    /**
+     * Error response for request validation errors.
+     */
+    public ErrorResponse fromValidationMessage(String validationErrorMessage) {
+        return withTraceId(new ErrorResponse(validationErrorMessage != null ? validationErrorMessage : errorMessages.getValidation()));
+    }
+
+    /**
+     * Error response for unexpected errors.
+     */
+    public ErrorResponse unexpected() {
+        return withTraceId(new ErrorResponse(errorMessages.getInternalServer(), errorMessages.getUnexpected()));
+    }
+
+    /**
+     * Attach the trace ID of the current request, if it is traced.
+     */
+    private ErrorResponse withTraceId(ErrorResponse response) {
+        response.setTraceId(TraceContext.currentTraceId());
+        return response;
+    }
+}
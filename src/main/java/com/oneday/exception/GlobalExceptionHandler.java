@@ -20,9 +20,11 @@ public class GlobalExceptionHandler {
 
     private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
     private final ErrorMessageProperties errorMessages;
+    private final ErrorResponseFactory errorResponseFactory;
 
-    public GlobalExceptionHandler(ErrorMessageProperties errorMessages) {
+    public GlobalExceptionHandler(ErrorMessageProperties errorMessages, ErrorResponseFactory errorResponseFactory) {
         this.errorMessages = errorMessages;
+        this.errorResponseFactory = errorResponseFactory;
     }
 
     /**
@@ -33,15 +35,7 @@ public class GlobalExceptionHandler {
     @SuppressWarnings("unused")  // Used by Spring framework via @ExceptionHandler
     public ResponseEntity<ErrorResponse> handleIllegalArgument(IllegalArgumentException e) {
         log.warn("Validation error: {}", e.getMessage());
-        String exceptionMessage = e.getMessage();
-
-        // For postal code errors, return message in error field
-        if (exceptionMessage != null && exceptionMessage.contains("Postal Code")) {
-            return ResponseEntity.badRequest().body(new ErrorResponse(exceptionMessage));
-        }
-
-        // For other errors (like altitude), return with both error and message fields
-        return ResponseEntity.badRequest().body(new ErrorResponse(errorMessages.getValidation(), exceptionMessage));
+        return ResponseEntity.badRequest().body(errorResponseFactory.fromIllegalArgument(e));
     }
 
     /**
@@ -53,7 +47,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponse> handleValidationExceptions(MethodArgumentNotValidException exception) {
         String validationErrorMessage = extractFirstValidationError(exception);
         log.warn("Validation error: {}", validationErrorMessage);
-        return ResponseEntity.badRequest().body(new ErrorResponse(validationErrorMessage));
+        return ResponseEntity.badRequest().body(errorResponseFactory.fromValidationMessage(validationErrorMessage));
     }
 
     /**
@@ -65,7 +59,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponse> handleGlobalException(Exception e) {
         log.error("Unexpected error", e);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(new ErrorResponse(errorMessages.getInternalServer(), errorMessages.getUnexpected()));
+                .body(errorResponseFactory.unexpected());
     }
 
     /**
@@ -0,0 +1,142 @@
+package com.oneday.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable interval index over altitude offset ranges with O(log n) lookups.
+ * Overlapping ranges are resolved at build time into disjoint intervals, keeping the
+ * semantics of a linear scan in fromMeters order: the first range containing an altitude wins.
+ * Overlaps and gaps found while building are reported as validation warnings.
+ */
+public final class AltitudeOffsetIndex {
+
+    private static final AltitudeOffsetIndex EMPTY =
+        new AltitudeOffsetIndex(new int[0], new int[0], new double[0], Integer.MAX_VALUE, Collections.emptyList());
+
+    private final int[] from;
+    private final int[] to;
+    private final double[] offset;
+    private final int maxAltitude;
+    private final List<String> validationWarnings;
+
+    private AltitudeOffsetIndex(int[] from, int[] to, double[] offset, int maxAltitude, List<String> validationWarnings) {
+        this.from = from;
+        this.to = to;
+        this.offset = offset;
+        this.maxAltitude = maxAltitude;
+        this.validationWarnings = validationWarnings;
+    }
+
+    public static AltitudeOffsetIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Build the index.
+     *
+     * @param ranges altitude offset ranges sorted by fromMeters ascending
+     * @return immutable index
+     * @throws IllegalArgumentException if a range ends below its start or ranges are not sorted
+     */
+    public static AltitudeOffsetIndex of(List<AltitudeOffsetRange> ranges) {
+        if (ranges.isEmpty()) {
+            return EMPTY;
+        }
+
+        int[] from = new int[ranges.size()];
+        int[] to = new int[ranges.size()];
+        double[] offset = new double[ranges.size()];
+        List<String> warnings = new ArrayList<>();
+        int size = 0;
+        long coveredUpTo = Long.MIN_VALUE;
+        int previousFrom = Integer.MIN_VALUE;
+
+        for (AltitudeOffsetRange range : ranges) {
+            validateRange(range, previousFrom);
+            previousFrom = range.getFromMeters();
+
+            long start = range.getFromMeters();
+            if (start <= coveredUpTo) {
+                warnings.add(String.format("Range [%d, %d] overlaps earlier ranges up to %d",
+                    range.getFromMeters(), range.getToMeters(), coveredUpTo));
+                start = coveredUpTo + 1;
+            } else if (coveredUpTo != Long.MIN_VALUE && start > coveredUpTo + 1) {
+                warnings.add(String.format("Gap between %d and %d has no offset range", coveredUpTo + 1, start - 1));
+            }
+
+            if (start <= range.getToMeters()) {
+                from[size] = (int) start;
+                to[size] = range.getToMeters();
+                offset[size] = range.getOffset();
+                size++;
+            }
+            coveredUpTo = Math.max(coveredUpTo, range.getToMeters());
+        }
+
+        return new AltitudeOffsetIndex(Arrays.copyOf(from, size), Arrays.copyOf(to, size),
+            Arrays.copyOf(offset, size), (int) coveredUpTo, Collections.unmodifiableList(warnings));
+    }
+
+    private static void validateRange(AltitudeOffsetRange range, int previousFrom) {
+        if (range.getToMeters() < range.getFromMeters()) {
+            throw new IllegalArgumentException(String.format("Altitude offset range [%d, %d] ends below its start",
+                range.getFromMeters(), range.getToMeters()));
+        }
+        if (range.getFromMeters() < previousFrom) {
+            throw new IllegalArgumentException("Altitude offset ranges must be sorted by fromMeters");
+        }
+    }
+
+    public boolean isEmpty() {
+        return from.length == 0;
+    }
+
+    /**
+     * @return highest altitude covered by the ranges
+     */
+    public int maxAltitude() {
+        return maxAltitude;
+    }
+
+    /**
+     * Binary search for the interval containing the altitude.
+     *
+     * @return index of the matching interval, or -1 if none matches
+     */
+    public int find(int altitude) {
+        int low = 0;
+        int high = from.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (from[mid] <= altitude) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        // high is now the last interval starting at or below the altitude
+        return high >= 0 && altitude <= to[high] ? high : -1;
+    }
+
+    public double offset(int interval) {
+        return offset[interval];
+    }
+
+    public int from(int interval) {
+        return from[interval];
+    }
+
+    public int to(int interval) {
+        return to[interval];
+    }
+
+    /**
+     * @return overlaps and gaps found while building the index
+     */
+    public List<String> validationWarnings() {
+        return validationWarnings;
+    }
+}
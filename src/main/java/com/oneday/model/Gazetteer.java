@@ -0,0 +1,188 @@
+package com.oneday.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable in-memory gazetteer of named places with a token inverted index.
+ * Names and queries are tokenized case- and accent-insensitively. Only addresses naming a locality
+ * and nothing more are matched, e.g. "38000 Grenoble" or "Saint-Étienne, France": apart from postal
+ * codes and a trailing country, the words of the address must be exactly the place's words, and any
+ * postal code in the place name must occur in the address. Street addresses do not match, so they
+ * are geocoded precisely instead of at the centroid of their locality.
+ * The most specific place (most tokens) wins; equally specific places are ambiguous and match nothing.
+ */
+public final class Gazetteer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+    private static final Pattern NUMBER = Pattern.compile("\\p{Digit}+");
+    private static final Set<String> COUNTRIES = Set.of("france");
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final int[] tokenCounts;
+    private final Map<String, int[]> postings;
+
+    private Gazetteer(double[] latitudes, double[] longitudes, int[] tokenCounts, Map<String, int[]> postings) {
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.tokenCounts = tokenCounts;
+        this.postings = postings;
+    }
+
+    /**
+     * Load a gazetteer from CSV lines of the form {@code name,latitude,longitude}.
+     * Blank lines, lines starting with '#' and a {@code name,...} header are skipped.
+     *
+     * @throws IllegalArgumentException if a line is malformed
+     */
+    public static Gazetteer load(Reader reader) throws IOException {
+        List<String> names = new ArrayList<>();
+        List<Coordinates> coordinates = new ArrayList<>();
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#") || (lineNumber == 1 && line.startsWith("name,"))) {
+                continue;
+            }
+            int lonSeparator = line.lastIndexOf(',');
+            int latSeparator = lonSeparator > 0 ? line.lastIndexOf(',', lonSeparator - 1) : -1;
+            if (latSeparator <= 0) {
+                throw new IllegalArgumentException("Malformed gazetteer line " + lineNumber + ": " + line);
+            }
+            try {
+                coordinates.add(new Coordinates(
+                    Double.parseDouble(line.substring(latSeparator + 1, lonSeparator).trim()),
+                    Double.parseDouble(line.substring(lonSeparator + 1).trim())));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Malformed gazetteer line " + lineNumber + ": " + line, e);
+            }
+            names.add(line.substring(0, latSeparator));
+        }
+        return of(names, coordinates);
+    }
+
+    /**
+     * Build a gazetteer from place names and their coordinates, in priority order.
+     */
+    public static Gazetteer of(List<String> names, List<Coordinates> coordinates) {
+        double[] latitudes = new double[names.size()];
+        double[] longitudes = new double[names.size()];
+        int[] tokenCounts = new int[names.size()];
+        Map<String, List<Integer>> builder = new HashMap<>();
+
+        for (int i = 0; i < names.size(); i++) {
+            latitudes[i] = coordinates.get(i).getLatitude();
+            longitudes[i] = coordinates.get(i).getLongitude();
+            Set<String> tokens = tokenize(names.get(i));
+            tokenCounts[i] = tokens.size();
+            for (String token : tokens) {
+                builder.computeIfAbsent(token, t -> new ArrayList<>()).add(i);
+            }
+        }
+
+        Map<String, int[]> postings = new HashMap<>(builder.size() * 2);
+        builder.forEach((token, places) -> postings.put(token, places.stream().mapToInt(Integer::intValue).toArray()));
+        return new Gazetteer(latitudes, longitudes, tokenCounts, postings);
+    }
+
+    /**
+     * Find the place the address consists of.
+     *
+     * @return coordinates of the matching place, or null if the address is more than a locality,
+     *         or if no place or several equally specific places match
+     */
+    public Coordinates find(String address) {
+        String[] segments = address.split(",");
+        int last = segments.length - 1;
+        if (last > 0 && COUNTRIES.containsAll(tokenize(segments[last]))) {
+            last--;
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        for (int i = 0; i <= last; i++) {
+            tokens.addAll(tokenize(segments[i]));
+        }
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        Map<Integer, int[]> matches = matchTokens(tokens);
+        return matches.isEmpty() ? null : mostSpecific(matches.keySet());
+    }
+
+    /**
+     * Match the places named by the address tokens: every token of the place occurs in the
+     * address and every word of the address belongs to the place. Numbers in the address
+     * (postal codes) may be left unmatched.
+     *
+     * @return matched places
+     */
+    private Map<Integer, int[]> matchTokens(Set<String> tokens) {
+        int words = 0;
+        // Per place: name tokens found in the address, and of those the words
+        Map<Integer, int[]> counts = new HashMap<>();
+        for (String token : tokens) {
+            boolean word = !NUMBER.matcher(token).matches();
+            if (word) {
+                words++;
+            }
+            for (int place : postings.getOrDefault(token, new int[0])) {
+                int[] count = counts.computeIfAbsent(place, p -> new int[2]);
+                count[0]++;
+                if (word) {
+                    count[1]++;
+                }
+            }
+        }
+        int addressWords = words;
+        counts.entrySet().removeIf(match ->
+            match.getValue()[0] != tokenCounts[match.getKey()] || match.getValue()[1] != addressWords);
+        return counts;
+    }
+
+    /**
+     * @return coordinates of the place with the most tokens, or null if several share the most
+     */
+    private Coordinates mostSpecific(Set<Integer> places) {
+        int best = -1;
+        boolean ambiguous = false;
+        for (int place : places) {
+            if (best < 0 || tokenCounts[place] > tokenCounts[best]) {
+                best = place;
+                ambiguous = false;
+            } else if (tokenCounts[place] == tokenCounts[best]) {
+                ambiguous = true;
+            }
+        }
+        return ambiguous ? null : new Coordinates(latitudes[best], longitudes[best]);
+    }
+
+    public int size() {
+        return latitudes.length;
+    }
+
+    /**
+     * Split text into distinct lower-case tokens without diacritics, e.g. "Saint-Étienne" into [saint, etienne].
+     */
+    static Set<String> tokenize(String text) {
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+            .toLowerCase(Locale.ROOT);
+        Set<String> tokens = new LinkedHashSet<>(Arrays.asList(SEPARATORS.split(folded)));
+        tokens.remove("");
+        return tokens;
+    }
+}
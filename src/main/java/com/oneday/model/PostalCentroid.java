@@ -0,0 +1,40 @@
+package com.oneday.model;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * Entity representing the precomputed elevation of a French postal code's centroid.
+ * The postalCode field stores the full 5-character postal code.
+ */
+@Entity
+public class PostalCentroid {
+
+    @Id
+    private String postalCode;
+    private int elevation; // meters, at the postal code area centroid
+
+    public PostalCentroid() {
+    }
+
+    public PostalCentroid(String postalCode, int elevation) {
+        this.postalCode = postalCode;
+        this.elevation = elevation;
+    }
+
+    public String getPostalCode() {
+        return postalCode;
+    }
+
+    public void setPostalCode(String postalCode) {
+        this.postalCode = postalCode;
+    }
+
+    public int getElevation() {
+        return elevation;
+    }
+
+    public void setElevation(int elevation) {
+        this.elevation = elevation;
+    }
+}
@@ -0,0 +1,156 @@
+package com.oneday.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+
+/**
+ * Immutable, read-optimized copy of the temperature datasets.
+ * Base temperatures are held in a 100-slot array indexed by department code, and altitude
+ * offset ranges in an {@link AltitudeOffsetIndex}, so lookups allocate nothing and never
+ * touch the database. Postal code centroid elevations are kept in a map keyed by postal code.
+ */
+public final class TemperatureSnapshot {
+
+    private static final int DEPARTMENT_SLOTS = 100;
+    private static final int CORSICA_SLOT = 20;
+
+    private static final TemperatureSnapshot EMPTY =
+        new TemperatureSnapshot(0, emptyTemperatures(), AltitudeOffsetIndex.empty(), Collections.emptyMap());
+
+    private final long version;
+    private final double[] baseTemperatures;
+    private final AltitudeOffsetIndex offsets;
+    private final Map<String, Integer> centroidElevations;
+
+    private TemperatureSnapshot(long version, double[] baseTemperatures, AltitudeOffsetIndex offsets,
+                                Map<String, Integer> centroidElevations) {
+        this.version = version;
+        this.baseTemperatures = baseTemperatures;
+        this.offsets = offsets;
+        this.centroidElevations = centroidElevations;
+    }
+
+    /**
+     * Snapshot with no data, used until the datasets are loaded.
+     */
+    public static TemperatureSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Build a snapshot from the dataset entities.
+     *
+     * @param version dataset version the snapshot is built for
+     * @param temperatures postal temperatures, keyed by 2-character department code
+     * @param ranges altitude offset ranges sorted by fromMeters ascending
+     * @return immutable snapshot
+     * @throws IllegalArgumentException if the altitude offset ranges are invalid
+     */
+    public static TemperatureSnapshot of(long version, Iterable<PostalTemperature> temperatures,
+                                         List<AltitudeOffsetRange> ranges) {
+        return of(version, temperatures, ranges, Collections.emptyList());
+    }
+
+    /**
+     * Build a snapshot from the dataset entities, including postal code centroid elevations.
+     *
+     * @param version dataset version the snapshot is built for
+     * @param temperatures postal temperatures, keyed by 2-character department code
+     * @param ranges altitude offset ranges sorted by fromMeters ascending
+     * @param centroids centroid elevations, keyed by full postal code
+     * @return immutable snapshot
+     * @throws IllegalArgumentException if the altitude offset ranges are invalid
+     */
+    public static TemperatureSnapshot of(long version, Iterable<PostalTemperature> temperatures,
+                                         List<AltitudeOffsetRange> ranges, Iterable<PostalCentroid> centroids) {
+        double[] baseTemperatures = emptyTemperatures();
+        for (PostalTemperature temperature : temperatures) {
+            String code = temperature.getPostalCode();
+            int slot = departmentIndex(code);
+            if (slot < 0) {
+                continue;
+            }
+            // An explicit "20" entry wins over the split Corsican codes 2A/2B
+            boolean corsicanSplitCode = slot == CORSICA_SLOT && Character.isLetter(code.trim().charAt(1));
+            if (!corsicanSplitCode || Double.isNaN(baseTemperatures[slot])) {
+                baseTemperatures[slot] = temperature.getTemperature();
+            }
+        }
+
+        Map<String, Integer> centroidElevations = new HashMap<>();
+        for (PostalCentroid centroid : centroids) {
+            centroidElevations.put(centroid.getPostalCode().trim(), centroid.getElevation());
+        }
+
+        return new TemperatureSnapshot(version, baseTemperatures, AltitudeOffsetIndex.of(ranges),
+            Collections.unmodifiableMap(centroidElevations));
+    }
+
+    /**
+     * Map a postal code to its department slot: the first two characters after leading
+     * whitespace, where 2A and 2B (Corsica) share slot 20 like their postal codes 20xxx.
+     *
+     * @return slot 0-99, or -1 if the postal code has no valid department prefix
+     */
+    public static int departmentIndex(String postalCode) {
+        if (postalCode == null) {
+            return -1;
+        }
+        int start = 0;
+        while (start < postalCode.length() && Character.isWhitespace(postalCode.charAt(start))) {
+            start++;
+        }
+        if (postalCode.length() - start < 2) {
+            return -1;
+        }
+        char first = postalCode.charAt(start);
+        char second = postalCode.charAt(start + 1);
+        if (first == '2' && (second == 'A' || second == 'a' || second == 'B' || second == 'b')) {
+            return CORSICA_SLOT;
+        }
+        if (first < '0' || first > '9' || second < '0' || second > '9') {
+            return -1;
+        }
+        return (first - '0') * 10 + (second - '0');
+    }
+
+    /**
+     * @return base temperature for the department slot, or NaN if unknown
+     */
+    public double baseTemperature(int departmentIndex) {
+        return departmentIndex < 0 ? Double.NaN : baseTemperatures[departmentIndex];
+    }
+
+    /**
+     * @return elevation of the postal code centroid, or empty if the postal code is unknown
+     */
+    public OptionalInt centroidElevation(String postalCode) {
+        Integer elevation = postalCode == null ? null : centroidElevations.get(postalCode.trim());
+        return elevation == null ? OptionalInt.empty() : OptionalInt.of(elevation);
+    }
+
+    /**
+     * @return true if any postal code centroid elevation is loaded
+     */
+    public boolean hasCentroidElevations() {
+        return !centroidElevations.isEmpty();
+    }
+
+    public AltitudeOffsetIndex offsets() {
+        return offsets;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    private static double[] emptyTemperatures() {
+        double[] temperatures = new double[DEPARTMENT_SLOTS];
+        Arrays.fill(temperatures, Double.NaN);
+        return temperatures;
+    }
+}
@@ -0,0 +1,13 @@
+package com.oneday.repository;
+
+import com.oneday.model.PostalCentroid;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for PostalCentroid entities.
+ * Provides database operations for postal code centroid elevations.
+ */
+@Repository
+public interface PostalCentroidRepository extends JpaRepository<PostalCentroid, String> {
+}
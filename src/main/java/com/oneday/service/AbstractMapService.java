@@ -0,0 +1,150 @@
+package com.oneday.service;
+
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.model.Coordinates;
+import com.oneday.util.Futures;
+import com.oneday.util.LookupPriority;
+import io.opentelemetry.context.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.RestClientException;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Base class for {@link MapService} implementations.
+ * Runs the geocode and elevation stages in sequence and validates the result,
+ * falling back to 0 altitude when the address cannot be resolved.
+ * Lookups for known coordinates run the elevation stage only.
+ * {@link UpstreamUnavailableException} is propagated rather than turned into 0 altitude.
+ */
+public abstract class AbstractMapService implements MapService {
+
+    private static final int MAX_ELEVATION_METERS = 20000;
+    private static final int MIN_ELEVATION_METERS = -500;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+    protected final ErrorMessageProperties errorMessages;
+
+    protected AbstractMapService(ErrorMessageProperties errorMessages) {
+        this.errorMessages = errorMessages;
+    }
+
+    @Override
+    public int getAltitudeMeters(String address) throws IllegalArgumentException {
+        if (isInvalidAddress(address)) {
+            return 0;
+        }
+
+        try {
+            Coordinates coordinates = geocodeAddress(address);
+            int elevation = getElevationMeters(coordinates);
+            return validateAndReturnElevation(elevation);
+        } catch (RuntimeException e) {
+            return fallBackToZeroAltitude(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Integer> getAltitudeMetersAsync(String address) {
+        if (isInvalidAddress(address)) {
+            return CompletableFuture.completedFuture(0);
+        }
+
+        CompletableFuture<Integer> elevation;
+        try {
+            // The elevation stage runs on the thread completing the geocode, e.g. an HTTP client or rate limiter
+            // thread, so it is given the caller's trace context and priority
+            elevation = geocodeAddressAsync(address)
+                .thenCompose(Context.current().wrapFunction(
+                    LookupPriority.current().wrapFunction(this::getElevationMetersAsync)));
+        } catch (RuntimeException e) {
+            elevation = CompletableFuture.failedFuture(e);
+        }
+
+        return elevation
+            .thenApply(this::validateAndReturnElevation)
+            .exceptionally(this::fallBackToZeroAltitude);
+    }
+
+    @Override
+    public int getAltitudeMetersAt(Coordinates coordinates) {
+        try {
+            return validateAndReturnElevation(getElevationMeters(coordinates));
+        } catch (RuntimeException e) {
+            return fallBackToZeroAltitude(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Integer> getAltitudeMetersAtAsync(Coordinates coordinates) {
+        CompletableFuture<Integer> elevation;
+        try {
+            elevation = getElevationMetersAsync(coordinates);
+        } catch (RuntimeException e) {
+            elevation = CompletableFuture.failedFuture(e);
+        }
+
+        return elevation
+            .thenApply(this::validateAndReturnElevation)
+            .exceptionally(this::fallBackToZeroAltitude);
+    }
+
+    /**
+     * Log a failed lookup and fall back to 0 altitude.
+     * An unavailable upstream is propagated, so the caller can report a degraded response.
+     */
+    private int fallBackToZeroAltitude(Throwable error) {
+        Throwable cause = Futures.unwrap(error);
+        onFallbackToZeroAltitude(cause);
+        if (cause instanceof UpstreamUnavailableException) {
+            throw (UpstreamUnavailableException) cause;
+        }
+        if (cause instanceof RestClientException) {
+            log.error("External maps API call failed", cause);
+        } else {
+            log.error("Unexpected error while getting altitude", cause);
+        }
+        return 0;
+    }
+
+    /**
+     * Called when a lookup is answered with 0 altitude, or fails because the upstream is unavailable.
+     * Does nothing by default.
+     *
+     * @param cause the error the lookup failed with
+     */
+    protected void onFallbackToZeroAltitude(Throwable cause) {
+    }
+
+    /**
+     * Check if the address is valid (not null or blank).
+     */
+    protected boolean isInvalidAddress(String address) {
+        return address == null || address.isBlank();
+    }
+
+    /**
+     * Validate elevation is within acceptable bounds.
+     *
+     * @param elevation elevation in meters
+     * @return the elevation if valid
+     * @throws IllegalArgumentException if elevation is invalid
+     */
+    protected int validateAndReturnElevation(int elevation) {
+        if (!isValidElevation(elevation)) {
+            log.error("Invalid elevation value: {}. Must be between {} and {} meters",
+                elevation, MIN_ELEVATION_METERS, MAX_ELEVATION_METERS);
+            throw new IllegalArgumentException(errorMessages.getInvalidElevation());
+        }
+        return elevation;
+    }
+
+    /**
+     * Check if elevation is within acceptable bounds.
+     * Realworld elevations range from ~-430m (Dead Sea) to ~8,849m (Mt. Everest)
+     */
+    private boolean isValidElevation(int elevation) {
+        return elevation >= MIN_ELEVATION_METERS && elevation <= MAX_ELEVATION_METERS;
+    }
+}
@@ -0,0 +1,390 @@
+package com.oneday.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oneday.config.BatchProperties;
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.dto.AddressRequest;
+import com.oneday.dto.AltitudeTemperatureResponse;
+import com.oneday.dto.BatchItemResponse;
+import com.oneday.dto.ErrorResponse;
+import com.oneday.exception.ErrorResponseFactory;
+import com.oneday.model.Coordinates;
+import com.oneday.util.Addresses;
+import com.oneday.util.Futures;
+import com.oneday.util.LookupPriority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Service resolving altitude and standard minimum temperature for address requests,
+ * one at a time, as a batch or as a stream.
+ */
+@Service
+public class AltitudeTemperatureService {
+
+    private static final Logger log = LoggerFactory.getLogger(AltitudeTemperatureService.class);
+
+    private final MapService mapService;
+    private final TemperatureService temperatureService;
+    private final TemperatureLookupTables lookupTables;
+    private final Validator validator;
+    private final Executor lookupExecutor;
+    private final BatchProperties batchProperties;
+    private final ErrorMessageProperties errorMessages;
+    private final ErrorResponseFactory errorResponseFactory;
+    private final ObjectMapper objectMapper;
+
+    public AltitudeTemperatureService(MapService mapService, TemperatureService temperatureService,
+                                      TemperatureLookupTables lookupTables, Validator validator,
+                                      @Qualifier("lookupExecutor") Executor lookupExecutor,
+                                      BatchProperties batchProperties, ErrorMessageProperties errorMessages,
+                                      ErrorResponseFactory errorResponseFactory, ObjectMapper objectMapper) {
+        this.mapService = mapService;
+        this.temperatureService = temperatureService;
+        this.lookupTables = lookupTables;
+        this.validator = validator;
+        this.lookupExecutor = lookupExecutor;
+        this.batchProperties = batchProperties;
+        this.errorMessages = errorMessages;
+        this.errorResponseFactory = errorResponseFactory;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Resolve altitude and standard minimum temperature for a single request.
+     * The altitude is resolved once and reused for the temperature calculation.
+     * Coordinates supplied with the request are used as-is, skipping geocoding.
+     * If the altitude upstreams are unavailable, a degraded response with 0 altitude is returned.
+     *
+     * @param request validated address request
+     * @return altitude in meters and temperature in Celsius
+     * @throws IllegalArgumentException if postal code is not found or altitude exceeds the configured ranges
+     */
+    public AltitudeTemperatureResponse resolve(AddressRequest request) throws IllegalArgumentException {
+        int altitude;
+        if (usesCentroid(request)) {
+            altitude = getCentroidAltitudeOrThrow(request.getPostalCode());
+        } else {
+            try {
+                altitude = request.hasCoordinates()
+                    ? mapService.getAltitudeMetersAt(coordinatesOf(request))
+                    : mapService.getAltitudeMeters(request.getAddress());
+            } catch (UpstreamUnavailableException e) {
+                return degradedResponse(request, e);
+            } catch (IllegalArgumentException e) {
+                // If address cannot be geocoded, return 0 altitude
+                altitude = 0;
+            }
+        }
+
+        double temp = temperatureService.getStandardMinTemperature(request.getPostalCode(), altitude);
+        return new AltitudeTemperatureResponse(altitude, temp);
+    }
+
+    /**
+     * Resolve altitude and standard minimum temperature without blocking the calling thread.
+     * Remote lookups run on the non-blocking client; the temperature is computed when the altitude arrives.
+     *
+     * @param request validated address request
+     * @return future altitude and temperature, failing with IllegalArgumentException
+     *         if postal code is not found or altitude exceeds the configured ranges
+     */
+    public CompletableFuture<AltitudeTemperatureResponse> resolveAsync(AddressRequest request) {
+        try {
+            if (usesCentroid(request)) {
+                return CompletableFuture.completedFuture(resolve(request));
+            }
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<Integer> altitudeLookup = request.hasCoordinates()
+            ? mapService.getAltitudeMetersAtAsync(coordinatesOf(request))
+            : mapService.getAltitudeMetersAsync(request.getAddress());
+        return altitudeLookup
+            .thenApply(altitude -> new AltitudeTemperatureResponse(altitude,
+                temperatureService.getStandardMinTemperature(request.getPostalCode(), altitude)))
+            .exceptionally(error -> {
+                Throwable cause = Futures.unwrap(error);
+                if (cause instanceof UpstreamUnavailableException) {
+                    return degradedResponse(request, (UpstreamUnavailableException) cause);
+                }
+                throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(cause);
+            });
+    }
+
+    /**
+     * Response computed with 0 altitude while the altitude upstreams are unavailable.
+     */
+    private AltitudeTemperatureResponse degradedResponse(AddressRequest request, UpstreamUnavailableException e) {
+        log.warn("Returning degraded response with 0 altitude: {}", e.getMessage());
+        return AltitudeTemperatureResponse.degraded(temperatureService.getStandardMinTemperature(request.getPostalCode(), 0));
+    }
+
+    private Coordinates coordinatesOf(AddressRequest request) {
+        return new Coordinates(request.getLat(), request.getLon());
+    }
+
+    /**
+     * Whether the altitude comes from the postal code centroid. POSTAL precision stays off until
+     * centroid data is loaded; until then, requests with an address or coordinates are resolved from those.
+     *
+     * @throws IllegalArgumentException if POSTAL precision is requested without centroid data, address or coordinates
+     */
+    private boolean usesCentroid(AddressRequest request) {
+        if (request.getPrecision() != AddressRequest.Precision.POSTAL) {
+            return false;
+        }
+        if (lookupTables.current().hasCentroidElevations()) {
+            return true;
+        }
+        if (request.hasCoordinates() || (request.getAddress() != null && !request.getAddress().isBlank())) {
+            log.debug("No postal centroid data loaded, resolving POSTAL precision request from its address");
+            return false;
+        }
+        throw new IllegalArgumentException(errorMessages.getPostalPrecisionUnavailable());
+    }
+
+    /**
+     * Get the precomputed centroid elevation of a postal code.
+     *
+     * @throws IllegalArgumentException if the postal code has no centroid elevation
+     */
+    private int getCentroidAltitudeOrThrow(String postalCode) {
+        return lookupTables.current().centroidElevation(postalCode).orElseThrow(() -> {
+            log.warn("Postal code '{}' not found in centroid elevation data", postalCode);
+            return new IllegalArgumentException(errorMessages.getPostalCentroidNotFound());
+        });
+    }
+
+    /**
+     * Resolve a batch of requests in parallel on the lookup executor.
+     * Identical requests within the batch are resolved once. Invalid or failing items
+     * are reported per item and do not fail the batch.
+     *
+     * @param requests the address requests
+     * @return one result per request, in request order
+     * @throws IllegalArgumentException if the batch is empty or exceeds the configured maximum size
+     */
+    public List<BatchItemResponse> resolveBatch(List<AddressRequest> requests) throws IllegalArgumentException {
+        validateBatchSize(requests);
+
+        Map<String, CompletableFuture<AltitudeTemperatureResponse>> uniqueLookups = new HashMap<>();
+        List<CompletableFuture<BatchItemResponse>> items = new ArrayList<>(requests.size());
+
+        for (int i = 0; i < requests.size(); i++) {
+            int index = i;
+            AddressRequest request = requests.get(i);
+
+            String violation = findFirstViolation(request);
+            if (violation != null) {
+                ErrorResponse error = errorResponseFactory.fromValidationMessage(violation);
+                items.add(CompletableFuture.completedFuture(BatchItemResponse.failure(index, error)));
+                continue;
+            }
+
+            CompletableFuture<AltitudeTemperatureResponse> lookup = uniqueLookups.computeIfAbsent(batchKey(request),
+                key -> CompletableFuture.supplyAsync(
+                    () -> LookupPriority.callAs(LookupPriority.BATCH, () -> resolve(request)), lookupExecutor));
+            items.add(lookup.handle((response, error) -> error == null
+                ? BatchItemResponse.success(index, response)
+                : BatchItemResponse.failure(index, toErrorResponse(error))));
+        }
+
+        log.debug("Resolving batch of {} requests with {} unique lookups", requests.size(), uniqueLookups.size());
+
+        return items.stream()
+            .map(CompletableFuture::join)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Resolve a stream of newline-delimited JSON requests, writing one JSON result line per item
+     * as soon as it completes. Lines are in completion order and carry the index of their item.
+     * <p>
+     * At most {@code app.batch.stream-max-in-flight} items are being resolved or waiting to be
+     * written at a time. At the limit, reading stops until a result is written, so memory stays
+     * constant whatever the input size, and a slow client reading the results also slows down
+     * the reading of its input. Invalid items are reported per item; malformed JSON ends the
+     * stream with an error line after the items read so far are written.
+     *
+     * @param input newline-delimited address requests
+     * @param output newline-delimited batch item results
+     * @return number of items read
+     * @throws IOException if reading the input or writing the output fails
+     */
+    public int resolveStream(InputStream input, OutputStream output) throws IOException {
+        int maxInFlight = batchProperties.getStreamMaxInFlight();
+        BlockingQueue<BatchItemResponse> completed = new LinkedBlockingQueue<>();
+        int inFlight = 0;
+        int index = 0;
+        BatchItemResponse malformed = null;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            while (parser.nextToken() != null) {
+                JsonNode item = parser.readValueAsTree();
+                while (inFlight >= maxInFlight) {
+                    inFlight -= writeCompleted(completed, output, true);
+                }
+                submitStreamItem(index++, item, completed);
+                inFlight++;
+                inFlight -= writeCompleted(completed, output, false);
+            }
+        } catch (JsonParseException e) {
+            log.warn("Stopped reading malformed NDJSON input after {} items: {}", index, e.getOriginalMessage());
+            malformed = BatchItemResponse.failure(index, errorResponseFactory.fromValidationMessage(
+                String.format(errorMessages.getMalformedStream(), e.getLocation().getLineNr())));
+        }
+
+        while (inFlight > 0) {
+            inFlight -= writeCompleted(completed, output, true);
+        }
+        if (malformed != null) {
+            writeLine(output, malformed);
+        }
+        output.flush();
+        log.debug("Resolved stream of {} requests", index);
+        return index;
+    }
+
+    /**
+     * Validate a streamed item and resolve it on the lookup executor; its result is added to the completed queue.
+     */
+    private void submitStreamItem(int index, JsonNode item, BlockingQueue<BatchItemResponse> completed) {
+        AddressRequest request;
+        try {
+            request = objectMapper.treeToValue(item, AddressRequest.class);
+        } catch (JsonProcessingException e) {
+            completed.add(BatchItemResponse.failure(index, errorResponseFactory.fromValidationMessage(null)));
+            return;
+        }
+
+        String violation = findFirstViolation(request);
+        if (violation != null) {
+            completed.add(BatchItemResponse.failure(index, errorResponseFactory.fromValidationMessage(violation)));
+            return;
+        }
+
+        CompletableFuture.supplyAsync(
+                () -> LookupPriority.callAs(LookupPriority.BATCH, () -> resolve(request)), lookupExecutor)
+            .handle((response, error) -> error == null
+                ? BatchItemResponse.success(index, response)
+                : BatchItemResponse.failure(index, toErrorResponse(error)))
+            .thenAccept(completed::add);
+    }
+
+    /**
+     * Write the results completed so far and flush them to the client.
+     *
+     * @param wait whether to block until at least one result has completed
+     * @return number of results written
+     */
+    private int writeCompleted(BlockingQueue<BatchItemResponse> completed, OutputStream output, boolean wait)
+            throws IOException {
+        int written = 0;
+        BatchItemResponse result = wait ? takeCompleted(completed) : completed.poll();
+        for (; result != null; result = completed.poll()) {
+            writeLine(output, result);
+            written++;
+        }
+        if (written > 0) {
+            output.flush();
+        }
+        return written;
+    }
+
+    private BatchItemResponse takeCompleted(BlockingQueue<BatchItemResponse> completed) throws IOException {
+        try {
+            return completed.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for streamed lookups");
+        }
+    }
+
+    private void writeLine(OutputStream output, BatchItemResponse result) throws IOException {
+        output.write(objectMapper.writeValueAsBytes(result));
+        output.write('\n');
+    }
+
+    /**
+     * Validate the batch is not empty and within the configured maximum size.
+     *
+     * @throws IllegalArgumentException if the batch size is invalid
+     */
+    private void validateBatchSize(List<AddressRequest> requests) {
+        if (requests == null || requests.isEmpty() || requests.size() > batchProperties.getMaxItems()) {
+            throw new IllegalArgumentException(String.format(errorMessages.getBatchSize(), batchProperties.getMaxItems()));
+        }
+    }
+
+    /**
+     * Validate a single batch item.
+     *
+     * @return first validation error message, or null if the item is valid
+     */
+    private String findFirstViolation(AddressRequest request) {
+        if (request == null) {
+            return errorMessages.getAddressPostalCodeRequired();
+        }
+        return validator.validate(request).stream()
+            .findFirst()
+            .map(ConstraintViolation::getMessage)
+            .orElse(null);
+    }
+
+    /**
+     * Key identifying identical requests within a batch. Only requests answered from the postal code
+     * centroid share a lookup by postal code; the others are keyed by what they are resolved from.
+     */
+    private String batchKey(AddressRequest request) {
+        boolean centroid;
+        try {
+            centroid = usesCentroid(request);
+        } catch (IllegalArgumentException e) {
+            // Resolving fails the same way for every such item, and reports it per item
+            centroid = true;
+        }
+        if (centroid) {
+            return "POSTAL|" + request.getPostalCode().trim();
+        }
+        if (request.hasCoordinates()) {
+            return coordinatesOf(request) + "|" + request.getPostalCode().trim();
+        }
+        return Addresses.normalize(request.getAddress()) + "|" + request.getPostalCode().trim();
+    }
+
+    /**
+     * Map a failed lookup to the error reported for its item.
+     */
+    private ErrorResponse toErrorResponse(Throwable error) {
+        Throwable cause = Futures.unwrap(error);
+        if (cause instanceof IllegalArgumentException) {
+            return errorResponseFactory.fromIllegalArgument((IllegalArgumentException) cause);
+        }
+        log.error("Unexpected error while resolving batch item", cause);
+        return errorResponseFactory.unexpected();
+    }
+}
@@ -0,0 +1,259 @@
+package com.oneday.service;
+
+import com.oneday.config.ElevationBatchProperties;
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.model.Coordinates;
+import com.oneday.util.LookupPriority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link MapService} decorator batching concurrent elevation lookups.
+ * Lookups are collected for a short window, or until the batch is full, and sent as one
+ * multi-location request; each caller then receives the elevation matching its coordinates.
+ * Batches are sent from a small sender pool, so a slow request does not hold back the next
+ * window. When the upstream rejects a batch, its items are retried one by one, so one bad
+ * coordinate only fails its own caller. A batch is sent with the priority of its most urgent lookup.
+ */
+public class BatchingElevationMapService extends MapServiceDecorator {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchingElevationMapService.class);
+
+    private final int maxSize;
+    private final Duration window;
+    private final Duration maxWait;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService sender;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private List<PendingLookup> pending = new ArrayList<>();
+    private ScheduledFuture<?> scheduledFlush;
+    private boolean closed;
+
+    public BatchingElevationMapService(MapService delegate, ElevationBatchProperties properties,
+                                       ErrorMessageProperties errorMessages) {
+        super(delegate, errorMessages);
+        this.maxSize = properties.getMaxSize();
+        this.window = properties.getWindow();
+        this.maxWait = properties.getMaxWait();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "elevation-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger senderCount = new AtomicInteger();
+        ThreadPoolExecutor senderPool = new ThreadPoolExecutor(properties.getMaxConcurrentSends(),
+            properties.getMaxConcurrentSends(), 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "elevation-batch-sender-" + senderCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        senderPool.allowCoreThreadTimeOut(true);
+        this.sender = senderPool;
+    }
+
+    @Override
+    public int getElevationMeters(Coordinates coordinates) throws IllegalArgumentException {
+        CompletableFuture<Integer> elevation = submit(coordinates);
+        try {
+            return elevation.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (TimeoutException e) {
+            throw new ResourceAccessException("Timed out waiting for batched elevation lookup for " + coordinates);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted waiting for batched elevation lookup for " + coordinates);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Integer> getElevationMetersAsync(Coordinates coordinates) {
+        return submit(coordinates);
+    }
+
+    /**
+     * Queue a lookup. The batch is handed to the sender pool once it is full,
+     * or by the scheduler when its window closes.
+     */
+    CompletableFuture<Integer> submit(Coordinates coordinates) {
+        PendingLookup lookup = new PendingLookup(coordinates);
+        List<PendingLookup> fullBatch = null;
+
+        lock.lock();
+        try {
+            if (closed) {
+                lookup.elevation.completeExceptionally(closedException());
+                return lookup.elevation;
+            }
+            pending.add(lookup);
+            if (pending.size() >= maxSize) {
+                fullBatch = drain();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = scheduler.schedule(this::flush, window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (fullBatch != null) {
+            dispatch(fullBatch);
+        }
+        return lookup.elevation;
+    }
+
+    private void flush() {
+        List<PendingLookup> batch;
+        lock.lock();
+        try {
+            scheduledFlush = null;
+            batch = pending.isEmpty() ? null : drain();
+        } finally {
+            lock.unlock();
+        }
+
+        if (batch != null) {
+            dispatch(batch);
+        }
+    }
+
+    /**
+     * Take the pending lookups and cancel the scheduled flush. Must hold the lock.
+     */
+    private List<PendingLookup> drain() {
+        List<PendingLookup> batch = pending;
+        pending = new ArrayList<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(List<PendingLookup> batch) {
+        try {
+            sender.execute(() -> send(batch));
+        } catch (RejectedExecutionException e) {
+            fail(batch, closedException());
+        }
+    }
+
+    private static void fail(List<PendingLookup> batch, Throwable error) {
+        for (PendingLookup lookup : batch) {
+            lookup.elevation.completeExceptionally(error);
+        }
+    }
+
+    private static ResourceAccessException closedException() {
+        return new ResourceAccessException("Elevation batcher is closed");
+    }
+
+    private void send(List<PendingLookup> batch) {
+        LookupPriority priority = LookupPriority.BATCH;
+        for (PendingLookup lookup : batch) {
+            priority = LookupPriority.mostUrgent(priority, lookup.priority);
+        }
+        LookupPriority.runAs(priority, () -> sendAsIs(batch));
+    }
+
+    private void sendAsIs(List<PendingLookup> batch) {
+        List<Coordinates> coordinates = new ArrayList<>(batch.size());
+        for (PendingLookup lookup : batch) {
+            coordinates.add(lookup.coordinates);
+        }
+
+        try {
+            int[] elevations = delegate.getElevationsMeters(coordinates);
+            log.debug("Resolved {} elevations in one batched lookup", batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).elevation.complete(elevations[i]);
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() > 1 && isRejected(e)) {
+                log.debug("Batched elevation lookup for {} locations rejected, retrying one by one: {}",
+                    batch.size(), e.getMessage());
+                sendOneByOne(batch);
+                return;
+            }
+            fail(batch, e);
+        }
+    }
+
+    private void sendOneByOne(List<PendingLookup> batch) {
+        for (PendingLookup lookup : batch) {
+            try {
+                lookup.elevation.complete(delegate.getElevationMeters(lookup.coordinates));
+            } catch (RuntimeException e) {
+                lookup.elevation.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Whether the upstream rejected the batch's content, as opposed to being unavailable or throttling:
+     * retrying those items one by one would only add load.
+     */
+    private static boolean isRejected(RuntimeException e) {
+        if (e instanceof IllegalArgumentException) {
+            return true;
+        }
+        if (e instanceof RestClientResponseException) {
+            int status = ((RestClientResponseException) e).getRawStatusCode();
+            return status >= 400 && status < 500 && status != HttpStatus.TOO_MANY_REQUESTS.value();
+        }
+        return false;
+    }
+
+    /**
+     * Stop the batcher; lookups still waiting for their window fail, batches already sent complete.
+     */
+    @Override
+    public void close() {
+        List<PendingLookup> unsent;
+        lock.lock();
+        try {
+            closed = true;
+            unsent = drain();
+        } finally {
+            lock.unlock();
+        }
+        fail(unsent, closedException());
+        scheduler.shutdownNow();
+        sender.shutdown();
+        super.close();
+    }
+
+    private static class PendingLookup {
+        private final Coordinates coordinates;
+        private final LookupPriority priority = LookupPriority.current();
+        private final CompletableFuture<Integer> elevation = new CompletableFuture<>();
+
+        PendingLookup(Coordinates coordinates) {
+            this.coordinates = coordinates;
+        }
+    }
+}
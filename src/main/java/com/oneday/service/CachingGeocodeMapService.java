@@ -0,0 +1,188 @@
+package com.oneday.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.oneday.config.CacheProperties;
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.model.Coordinates;
+import com.oneday.util.Futures;
+import com.oneday.util.LookupPriority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * {@link MapService} decorator caching address to coordinates lookups.
+ * Size-bounded (W-TinyLFU eviction) with separate TTLs for found and not-found addresses.
+ * Remote failures are not cached.
+ * Entries older than the refresh-after (soft) TTL are still served, while one background
+ * refresh per key reloads them; only entries past their (hard) TTL cause a miss.
+ * Refreshes geocode the address as it was first looked up, at batch priority, through a
+ * separate refresher that must not answer from a persistent store.
+ * A failed refresh keeps the stale entry until it expires.
+ */
+public class CachingGeocodeMapService extends MapServiceDecorator {
+
+    private static final Logger log = LoggerFactory.getLogger(CachingGeocodeMapService.class);
+    private static final Optional<Coordinates> NOT_FOUND = Optional.empty();
+
+    private final MapService refresher;
+    private final LoadingCache<String, GeocodeEntry> cache;
+
+    public CachingGeocodeMapService(MapService delegate, CacheProperties.Geocode properties,
+                                    Executor refreshExecutor, ErrorMessageProperties errorMessages) {
+        this(delegate, delegate, properties, refreshExecutor, errorMessages);
+    }
+
+    /**
+     * @param refresher service refreshing stale entries, e.g. {@link PersistentCacheMapService#writeThrough()}
+     */
+    public CachingGeocodeMapService(MapService delegate, MapService refresher, CacheProperties.Geocode properties,
+                                    Executor refreshExecutor, ErrorMessageProperties errorMessages) {
+        this(delegate, refresher, properties, refreshExecutor, errorMessages, Ticker.systemTicker());
+    }
+
+    CachingGeocodeMapService(MapService delegate, MapService refresher, CacheProperties.Geocode properties,
+                             Executor refreshExecutor, ErrorMessageProperties errorMessages, Ticker ticker) {
+        super(delegate, errorMessages);
+        this.refresher = refresher;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new GeocodeExpiry(properties.getTtl(), properties.getNegativeTtl()))
+                .refreshAfterWrite(properties.getRefreshAfter())
+                .executor(refreshExecutor)
+                .ticker(ticker)
+                .recordStats()
+                .build(new GeocodeLoader());
+    }
+
+    @Override
+    public Coordinates geocodeAddress(String address) throws IllegalArgumentException {
+        String key = normalizeAddress(address);
+        GeocodeEntry cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached.coordinates.orElseThrow(() -> new IllegalArgumentException("Address not found: " + address));
+        }
+
+        try {
+            Coordinates coordinates = delegate.geocodeAddress(address);
+            cache.put(key, new GeocodeEntry(address, Optional.of(coordinates)));
+            return coordinates;
+        } catch (IllegalArgumentException e) {
+            log.debug("Caching not-found geocode result for '{}'", key);
+            cache.put(key, new GeocodeEntry(address, NOT_FOUND));
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Coordinates> geocodeAddressAsync(String address) {
+        String key = normalizeAddress(address);
+        GeocodeEntry cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached.coordinates.map(CompletableFuture::completedFuture)
+                .orElseGet(() -> CompletableFuture.failedFuture(new IllegalArgumentException("Address not found: " + address)));
+        }
+
+        return delegate.geocodeAddressAsync(address).whenComplete((coordinates, error) -> {
+            if (error == null) {
+                cache.put(key, new GeocodeEntry(address, Optional.of(coordinates)));
+            } else if (Futures.unwrap(error) instanceof IllegalArgumentException) {
+                log.debug("Caching not-found geocode result for '{}'", key);
+                cache.put(key, new GeocodeEntry(address, NOT_FOUND));
+            }
+        });
+    }
+
+    /**
+     * Get the underlying cache, e.g. for metrics binding.
+     */
+    public Cache<String, ?> getCache() {
+        return cache;
+    }
+
+    /**
+     * Get hit, miss and eviction statistics of the cache.
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Geocode result together with the address it was looked up with, which refreshes send again.
+     */
+    private static final class GeocodeEntry {
+        private final String address;
+        private final Optional<Coordinates> coordinates;
+
+        GeocodeEntry(String address, Optional<Coordinates> coordinates) {
+            this.address = address;
+            this.coordinates = coordinates;
+        }
+    }
+
+    /**
+     * Reload stale entries in the background; entries are otherwise only added by lookups.
+     */
+    private class GeocodeLoader implements CacheLoader<String, GeocodeEntry> {
+
+        @Override
+        public GeocodeEntry load(String key) {
+            return geocode(key);
+        }
+
+        @Override
+        public GeocodeEntry reload(String key, GeocodeEntry oldValue) {
+            return geocode(oldValue.address);
+        }
+
+        private GeocodeEntry geocode(String address) {
+            return LookupPriority.callAs(LookupPriority.BATCH, () -> {
+                try {
+                    return new GeocodeEntry(address, Optional.of(refresher.geocodeAddress(address)));
+                } catch (IllegalArgumentException e) {
+                    return new GeocodeEntry(address, NOT_FOUND);
+                }
+            });
+        }
+    }
+
+    /**
+     * Expire found and not-found results after their respective TTLs.
+     */
+    private static class GeocodeExpiry implements Expiry<String, GeocodeEntry> {
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        GeocodeExpiry(Duration ttl, Duration negativeTtl) {
+            this.ttlNanos = ttl.toNanos();
+            this.negativeTtlNanos = negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, GeocodeEntry value, long currentTime) {
+            return value.coordinates.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, GeocodeEntry value, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, GeocodeEntry value, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.oneday.service;
+
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.model.Coordinates;
+import com.oneday.util.CircuitBreaker;
+import com.oneday.util.Futures;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * {@link MapService} decorator guarding each upstream with a {@link CircuitBreaker}.
+ * Upstream errors and slow calls count against the breaker: {@link RestClientException} from either client,
+ * and the unwrapped {@link IOException} (e.g. a refused connection) the non-blocking client fails with;
+ * "not found" results do not. While a breaker is open, calls fail immediately with
+ * {@link UpstreamUnavailableException} instead of waiting for the upstream to time out.
+ */
+public class CircuitBreakerMapService extends MapServiceDecorator {
+
+    private final CircuitBreaker geocodeBreaker;
+    private final CircuitBreaker elevationBreaker;
+
+    public CircuitBreakerMapService(MapService delegate, CircuitBreaker geocodeBreaker,
+                                    CircuitBreaker elevationBreaker, ErrorMessageProperties errorMessages) {
+        super(delegate, errorMessages);
+        this.geocodeBreaker = geocodeBreaker;
+        this.elevationBreaker = elevationBreaker;
+    }
+
+    @Override
+    public Coordinates geocodeAddress(String address) throws IllegalArgumentException {
+        return call(geocodeBreaker, () -> delegate.geocodeAddress(address));
+    }
+
+    @Override
+    public CompletableFuture<Coordinates> geocodeAddressAsync(String address) {
+        return callAsync(geocodeBreaker, () -> delegate.geocodeAddressAsync(address));
+    }
+
+    @Override
+    public int getElevationMeters(Coordinates coordinates) throws IllegalArgumentException {
+        return call(elevationBreaker, () -> delegate.getElevationMeters(coordinates));
+    }
+
+    @Override
+    public CompletableFuture<Integer> getElevationMetersAsync(Coordinates coordinates) {
+        return callAsync(elevationBreaker, () -> delegate.getElevationMetersAsync(coordinates));
+    }
+
+    @Override
+    public int[] getElevationsMeters(List<Coordinates> coordinates) throws IllegalArgumentException {
+        return call(elevationBreaker, () -> delegate.getElevationsMeters(coordinates));
+    }
+
+    private <T> T call(CircuitBreaker breaker, Supplier<T> upstreamCall) {
+        long permit = acquirePermission(breaker);
+        long start = System.nanoTime();
+        try {
+            T result = upstreamCall.get();
+            breaker.onSuccess(permit, System.nanoTime() - start);
+            return result;
+        } catch (RuntimeException e) {
+            record(breaker, permit, e, System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    private <T> CompletableFuture<T> callAsync(CircuitBreaker breaker, Supplier<CompletableFuture<T>> upstreamCall) {
+        long permit;
+        try {
+            permit = acquirePermission(breaker);
+        } catch (UpstreamUnavailableException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        long start = System.nanoTime();
+        CompletableFuture<T> result;
+        try {
+            result = upstreamCall.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        return Futures.propagateCancellation(result.whenComplete((value, error) -> {
+            if (error == null) {
+                breaker.onSuccess(permit, System.nanoTime() - start);
+            } else if (error instanceof CancellationException) {
+                // Abandoned by the caller, e.g. a lookup that lost to its hedge: says nothing about the host
+                breaker.releasePermission(permit);
+            } else {
+                record(breaker, permit, Futures.unwrap(error), System.nanoTime() - start);
+            }
+        }), result);
+    }
+
+    private long acquirePermission(CircuitBreaker breaker) {
+        try {
+            return breaker.acquirePermission();
+        } catch (CircuitBreaker.CallNotPermittedException e) {
+            throw new UpstreamUnavailableException(e.getMessage(), e);
+        }
+    }
+
+    private void record(CircuitBreaker breaker, long permit, Throwable error, long durationNanos) {
+        if (error instanceof RestClientException || error instanceof IOException) {
+            breaker.onFailure(permit, durationNanos);
+        } else {
+            breaker.onSuccess(permit, durationNanos);
+        }
+    }
+}
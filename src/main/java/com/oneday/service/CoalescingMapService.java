@@ -0,0 +1,48 @@
+package com.oneday.service;
+
+import com.oneday.config.CoalescingProperties;
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.model.Coordinates;
+import com.oneday.util.SingleFlight;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link MapService} decorator coalescing concurrent identical lookups.
+ * Concurrent geocodes of the same normalized address, and concurrent elevation lookups
+ * for the same coordinates, share one remote call. Waiters block for at most the
+ * configured time and receive the same result or failure as the caller that made the call.
+ */
+public class CoalescingMapService extends MapServiceDecorator {
+
+    private final SingleFlight<String, Coordinates> geocodeFlights = new SingleFlight<>();
+    private final SingleFlight<Coordinates, Integer> elevationFlights = new SingleFlight<>();
+    private final Duration maxWait;
+
+    public CoalescingMapService(MapService delegate, CoalescingProperties properties,
+                                ErrorMessageProperties errorMessages) {
+        super(delegate, errorMessages);
+        this.maxWait = properties.getMaxWait();
+    }
+
+    @Override
+    public Coordinates geocodeAddress(String address) throws IllegalArgumentException {
+        return geocodeFlights.execute(normalizeAddress(address), () -> delegate.geocodeAddress(address), maxWait);
+    }
+
+    @Override
+    public int getElevationMeters(Coordinates coordinates) throws IllegalArgumentException {
+        return elevationFlights.execute(coordinates, () -> delegate.getElevationMeters(coordinates), maxWait);
+    }
+
+    @Override
+    public CompletableFuture<Coordinates> geocodeAddressAsync(String address) {
+        return geocodeFlights.executeAsync(normalizeAddress(address), () -> delegate.geocodeAddressAsync(address), maxWait);
+    }
+
+    @Override
+    public CompletableFuture<Integer> getElevationMetersAsync(Coordinates coordinates) {
+        return elevationFlights.executeAsync(coordinates, () -> delegate.getElevationMetersAsync(coordinates), maxWait);
+    }
+}
@@ -0,0 +1,260 @@
+package com.oneday.service;
+
+import com.oneday.config.DemProperties;
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.model.Coordinates;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link MapService} decorator answering elevation lookups from local SRTM-style .hgt tiles.
+ * Tiles are 1x1 degree grids of big-endian 16-bit samples, named after their south-west
+ * corner (e.g. N45E005.hgt), and are memory-mapped on first use; the least recently used
+ * tile is unmapped once more than the configured number are open. Reads from mapped tiles
+ * take no lock; only opening a tile does. Tiles found missing are remembered apart from the
+ * mapped ones, so they never evict real tiles.
+ * Elevations are bilinearly interpolated between the four surrounding samples.
+ * Coordinates without a local tile, with only void samples, or whose tile cannot be read
+ * fall back to the wrapped service.
+ */
+public class DemTileElevationMapService extends MapServiceDecorator {
+
+    private static final Logger log = LoggerFactory.getLogger(DemTileElevationMapService.class);
+    private static final short VOID_SAMPLE = Short.MIN_VALUE;
+
+    private final Path directory;
+    private final int maxOpenTiles;
+    private final ReentrantLock openLock = new ReentrantLock();
+    private final Map<String, DemTile> tiles = new ConcurrentHashMap<>();
+    // At most one entry per 1x1 degree cell of the globe, so bounded without eviction
+    private final Set<String> missingTiles = ConcurrentHashMap.newKeySet();
+    private final AtomicLong clock = new AtomicLong();
+
+    public DemTileElevationMapService(MapService delegate, DemProperties properties,
+                                      ErrorMessageProperties errorMessages) {
+        super(delegate, errorMessages);
+        this.directory = Paths.get(properties.getDirectory());
+        this.maxOpenTiles = properties.getMaxOpenTiles();
+    }
+
+    @Override
+    public int getElevationMeters(Coordinates coordinates) throws IllegalArgumentException {
+        double elevation = interpolate(coordinates);
+        return Double.isNaN(elevation) ? delegate.getElevationMeters(coordinates) : (int) Math.round(elevation);
+    }
+
+    @Override
+    public CompletableFuture<Integer> getElevationMetersAsync(Coordinates coordinates) {
+        double elevation = interpolate(coordinates);
+        return Double.isNaN(elevation)
+            ? delegate.getElevationMetersAsync(coordinates)
+            : CompletableFuture.completedFuture((int) Math.round(elevation));
+    }
+
+    /**
+     * Resolve the coordinates covered by local tiles and forward only the remaining ones
+     * to the wrapped service, in one multi-location lookup.
+     */
+    @Override
+    public int[] getElevationsMeters(List<Coordinates> coordinates) throws IllegalArgumentException {
+        int[] elevations = new int[coordinates.size()];
+        List<Integer> missIndexes = new ArrayList<>();
+        List<Coordinates> misses = new ArrayList<>();
+        for (int i = 0; i < elevations.length; i++) {
+            double elevation = interpolate(coordinates.get(i));
+            if (Double.isNaN(elevation)) {
+                missIndexes.add(i);
+                misses.add(coordinates.get(i));
+            } else {
+                elevations[i] = (int) Math.round(elevation);
+            }
+        }
+        if (!misses.isEmpty()) {
+            int[] remote = delegate.getElevationsMeters(misses);
+            for (int i = 0; i < remote.length; i++) {
+                elevations[missIndexes.get(i)] = remote[i];
+            }
+        }
+        return elevations;
+    }
+
+    /**
+     * Interpolate the elevation from the local tile covering the coordinates.
+     *
+     * @return elevation in meters, or NaN if no local data covers the coordinates
+     */
+    double interpolate(Coordinates coordinates) {
+        int tileLat = (int) Math.floor(coordinates.getLatitude());
+        int tileLon = (int) Math.floor(coordinates.getLongitude());
+        DemTile tile = tile(tileName(tileLat, tileLon));
+        if (tile == null) {
+            return Double.NaN;
+        }
+        // Rows run north to south, columns west to east
+        double row = (tileLat + 1 - coordinates.getLatitude()) * (tile.samples - 1);
+        double col = (coordinates.getLongitude() - tileLon) * (tile.samples - 1);
+        return tile.interpolate(row, col);
+    }
+
+    /**
+     * @return the mapped tile, or null if there is no usable local tile
+     */
+    private DemTile tile(String name) {
+        DemTile tile = tiles.get(name);
+        if (tile == null) {
+            if (missingTiles.contains(name)) {
+                return null;
+            }
+            tile = openTile(name);
+        }
+        if (tile != null) {
+            tile.lastUsed = clock.incrementAndGet();
+        }
+        return tile;
+    }
+
+    /**
+     * Map a tile not mapped yet, unmapping the least recently used one if too many are open.
+     * Missing and malformed tiles are remembered; tiles that fail to read are retried on the next lookup.
+     */
+    private DemTile openTile(String name) {
+        openLock.lock();
+        try {
+            DemTile tile = tiles.get(name);
+            if (tile != null || missingTiles.contains(name)) {
+                return tile;
+            }
+            Path path = directory.resolve(name);
+            if (!Files.isReadable(path)) {
+                log.debug("No DEM tile {}, falling back to remote elevation lookup", name);
+                missingTiles.add(name);
+                return null;
+            }
+            tile = mapTile(name, path);
+            if (tile == null) {
+                missingTiles.add(name);
+                return null;
+            }
+            if (tiles.size() >= maxOpenTiles) {
+                evictLeastRecentlyUsed();
+            }
+            tiles.put(name, tile);
+            return tile;
+        } catch (IOException e) {
+            log.warn("Failed to map DEM tile {}, falling back to remote elevation lookup: {}", name, e.getMessage());
+            return null;
+        } finally {
+            openLock.unlock();
+        }
+    }
+
+    /**
+     * @return the mapped tile, or null if the file does not hold a square grid of samples
+     */
+    private DemTile mapTile(String name, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int samples = (int) Math.round(Math.sqrt(size / 2.0));
+            if ((long) samples * samples * 2 != size || samples < 2) {
+                log.warn("Ignoring DEM tile {} with unexpected size {} bytes", name, size);
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            log.info("Mapped DEM tile {} ({}x{} samples)", name, samples, samples);
+            return new DemTile(buffer, samples);
+        }
+    }
+
+    /**
+     * Drop the least recently read tile. Must hold the open lock; a reader still holding
+     * the tile finishes its read, the mapping is released once the tile is unreachable.
+     */
+    private void evictLeastRecentlyUsed() {
+        String eldest = null;
+        long eldestUse = Long.MAX_VALUE;
+        for (Map.Entry<String, DemTile> entry : tiles.entrySet()) {
+            if (entry.getValue().lastUsed < eldestUse) {
+                eldest = entry.getKey();
+                eldestUse = entry.getValue().lastUsed;
+            }
+        }
+        if (eldest != null) {
+            tiles.remove(eldest);
+            log.debug("Unmapped least recently used DEM tile {}", eldest);
+        }
+    }
+
+    /**
+     * @return whether the tile is currently mapped
+     */
+    boolean isMapped(String name) {
+        return tiles.containsKey(name);
+    }
+
+    /**
+     * SRTM tile name for the tile whose south-west corner is at the given degrees, e.g. N45E005.hgt.
+     */
+    static String tileName(int tileLat, int tileLon) {
+        return String.format(Locale.ROOT, "%s%02d%s%03d.hgt",
+            tileLat >= 0 ? "N" : "S", Math.abs(tileLat), tileLon >= 0 ? "E" : "W", Math.abs(tileLon));
+    }
+
+    /**
+     * A memory-mapped tile of samples x samples big-endian 16-bit elevations.
+     */
+    private static final class DemTile {
+        private final MappedByteBuffer buffer;
+        private final int samples;
+        // Approximate recency is enough to pick a tile to unmap
+        private volatile long lastUsed;
+
+        DemTile(MappedByteBuffer buffer, int samples) {
+            this.buffer = buffer;
+            this.samples = samples;
+        }
+
+        /**
+         * Bilinear interpolation, ignoring void samples.
+         *
+         * @return elevation, or NaN if all four surrounding samples are void
+         */
+        double interpolate(double row, double col) {
+            int r0 = Math.min((int) Math.floor(row), samples - 2);
+            int c0 = Math.min((int) Math.floor(col), samples - 2);
+            double dr = row - r0;
+            double dc = col - c0;
+
+            double weightedSum = 0;
+            double totalWeight = 0;
+            for (int i = 0; i < 4; i++) {
+                int r = r0 + (i >> 1);
+                int c = c0 + (i & 1);
+                short sample = buffer.getShort((r * samples + c) * 2);
+                if (sample == VOID_SAMPLE) {
+                    continue;
+                }
+                double weight = ((i >> 1) == 1 ? dr : 1 - dr) * ((i & 1) == 1 ? dc : 1 - dc);
+                weightedSum += weight * sample;
+                totalWeight += weight;
+            }
+            return totalWeight > 0 ? weightedSum / totalWeight : Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.oneday.service;
+
+import com.oneday.config.CacheProperties;
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.model.Coordinates;
+import com.oneday.util.LongIntHashMap;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link MapService} decorator caching elevations by quantized coordinates.
+ * Coordinates are snapped to a grid of configurable cell size, so neighbouring addresses
+ * share one elevation lookup. Entries are stored in a primitive {@link LongIntHashMap}.
+ */
+public class ElevationCachingMapService extends MapServiceDecorator {
+
+    private static final int MISSING = Integer.MIN_VALUE;
+    private static final double MAX_LATITUDE = 90;
+    private static final double MAX_LONGITUDE = 180;
+
+    private final LongIntHashMap cache;
+    private final double gridDegrees;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ElevationCachingMapService(MapService delegate, CacheProperties.Elevation properties,
+                                      ErrorMessageProperties errorMessages) {
+        super(delegate, errorMessages);
+        if (properties.getGridDegrees() <= 0) {
+            throw new IllegalArgumentException("app.cache.elevation.grid-degrees must be positive");
+        }
+        if (2 * MAX_LONGITUDE / properties.getGridDegrees() >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("app.cache.elevation.grid-degrees must be at least "
+                + 2 * MAX_LONGITUDE / Integer.MAX_VALUE + " so that cell indices fit in an int");
+        }
+        this.cache = new LongIntHashMap(properties.getCapacity());
+        this.gridDegrees = properties.getGridDegrees();
+    }
+
+    @Override
+    public int getElevationMeters(Coordinates coordinates) throws IllegalArgumentException {
+        long key = cellKey(coordinates);
+        int cached = cache.get(key, MISSING);
+        if (cached != MISSING) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        int elevation = delegate.getElevationMeters(coordinates);
+        cache.put(key, elevation);
+        return elevation;
+    }
+
+    @Override
+    public CompletableFuture<Integer> getElevationMetersAsync(Coordinates coordinates) {
+        long key = cellKey(coordinates);
+        int cached = cache.get(key, MISSING);
+        if (cached != MISSING) {
+            hits.increment();
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        misses.increment();
+        return delegate.getElevationMetersAsync(coordinates)
+            .thenApply(elevation -> {
+                cache.put(key, elevation);
+                return elevation;
+            });
+    }
+
+    /**
+     * Pack the grid cell of the coordinates into a single long: latitude cell in the high
+     * 32 bits, longitude cell in the low 32 bits. Cells are counted from (-90, -180), with
+     * out-of-range coordinates clamped, so both indices are non-negative ints and the key
+     * is never the map's reserved {@link Long#MIN_VALUE}.
+     */
+    long cellKey(Coordinates coordinates) {
+        double latitude = Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, coordinates.getLatitude()));
+        double longitude = Math.max(-MAX_LONGITUDE, Math.min(MAX_LONGITUDE, coordinates.getLongitude()));
+        long latCell = (long) Math.floor((latitude + MAX_LATITUDE) / gridDegrees);
+        long lonCell = (long) Math.floor((longitude + MAX_LONGITUDE) / gridDegrees);
+        return (latCell << 32) | lonCell;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return cache.evictions();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+}
@@ -0,0 +1,61 @@
+package com.oneday.service;
+
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.model.Coordinates;
+import com.oneday.model.Gazetteer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link MapService} decorator answering geocoding lookups from a local {@link Gazetteer}.
+ * Only addresses with no matching place are geocoded by the wrapped service.
+ */
+public class GazetteerGeocodeMapService extends MapServiceDecorator {
+
+    private final Gazetteer gazetteer;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public GazetteerGeocodeMapService(MapService delegate, Gazetteer gazetteer, ErrorMessageProperties errorMessages) {
+        super(delegate, errorMessages);
+        this.gazetteer = gazetteer;
+    }
+
+    @Override
+    public Coordinates geocodeAddress(String address) throws IllegalArgumentException {
+        Coordinates coordinates = findLocally(address);
+        return coordinates != null ? coordinates : delegate.geocodeAddress(address);
+    }
+
+    @Override
+    public CompletableFuture<Coordinates> geocodeAddressAsync(String address) {
+        Coordinates coordinates = findLocally(address);
+        return coordinates != null
+            ? CompletableFuture.completedFuture(coordinates)
+            : delegate.geocodeAddressAsync(address);
+    }
+
+    private Coordinates findLocally(String address) {
+        Coordinates coordinates = gazetteer.find(address);
+        (coordinates != null ? hits : misses).increment();
+        return coordinates;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Share of lookups answered locally, or NaN before the first lookup.
+     */
+    public double hitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? Double.NaN : (double) hitCount / total;
+    }
+}
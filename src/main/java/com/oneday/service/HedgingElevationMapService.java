@@ -0,0 +1,225 @@
+package com.oneday.service;
+
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.config.HedgingProperties;
+import com.oneday.model.Coordinates;
+import com.oneday.util.Futures;
+import com.oneday.util.TokenBucketRateLimiter;
+import io.opentelemetry.context.Context;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link MapService} decorator hedging elevation lookups to cut tail latency.
+ * If a lookup has not completed after the configured latency percentile of recent lookups,
+ * a second identical lookup is sent; the first result wins and the other lookup is cancelled,
+ * which aborts its HTTP exchange. Each lookup earns a fraction of a hedge, up to a small burst,
+ * and each hedge spends one, so hedges stay a percentage of recent lookups. A hedge also needs
+ * a token from the upstream rate limiter, and is skipped rather than queued when none is free.
+ * Both lookups go through the non-blocking path, so synchronous callers block on the winner only.
+ */
+public class HedgingElevationMapService extends MapServiceDecorator {
+
+    // Budget credits are kept in millionths of a hedge
+    private static final long HEDGE_CREDIT = 1_000_000;
+
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long creditPerLookup;
+    private final long maxCredits;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicLong credits = new AtomicLong();
+
+    // Latencies of recent lookups in nanoseconds. A lookup that lost to its hedge counts
+    // as the time until it was cancelled, at least the hedge delay
+    private final ReentrantLock samplesLock = new ReentrantLock();
+    private final long[] samples;
+    private int sampleIndex;
+    private int sampleCount;
+    private volatile long hedgeDelayNanos;
+
+    private final LongAdder primaries = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+
+    public HedgingElevationMapService(MapService delegate, HedgingProperties properties,
+                                      ErrorMessageProperties errorMessages) {
+        this(delegate, properties, null, errorMessages);
+    }
+
+    /**
+     * @param rateLimiter limiter of the elevation host hedges take a token from, or null if it is not rate limited
+     */
+    public HedgingElevationMapService(MapService delegate, HedgingProperties properties,
+                                      TokenBucketRateLimiter rateLimiter, ErrorMessageProperties errorMessages) {
+        super(delegate, errorMessages);
+        this.percentile = properties.getPercentile();
+        this.minDelayNanos = properties.getMinDelay().toNanos();
+        this.creditPerLookup = Math.round(properties.getBudgetPercent() / 100 * HEDGE_CREDIT);
+        this.maxCredits = Math.max(1, properties.getBudgetBurst()) * HEDGE_CREDIT;
+        this.rateLimiter = rateLimiter;
+        this.samples = new long[properties.getSampleSize()];
+        this.hedgeDelayNanos = properties.getInitialDelay().toNanos();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "elevation-hedger");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public int getElevationMeters(Coordinates coordinates) throws IllegalArgumentException {
+        try {
+            return getElevationMetersAsync(coordinates).join();
+        } catch (RuntimeException e) {
+            Throwable cause = Futures.unwrap(e);
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Integer> getElevationMetersAsync(Coordinates coordinates) {
+        primaries.increment();
+        credits.updateAndGet(available -> Math.min(maxCredits, available + creditPerLookup));
+        long start = System.nanoTime();
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        CompletableFuture<Integer> primary = delegate.getElevationMetersAsync(coordinates);
+        // Lookups in flight; the result fails only when every lookup has failed
+        AtomicInteger pending = new AtomicInteger(1);
+
+        ScheduledFuture<?> hedgeTimer = null;
+        try {
+            // The hedge runs on the scheduler thread, in the caller's trace context
+            hedgeTimer = scheduler.schedule(Context.current().wrap(
+                () -> hedge(coordinates, start, primary, result, pending)), hedgeDelayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // Closed: the primary lookup goes on without a hedge
+        }
+
+        primary.whenComplete((elevation, error) -> {
+            if (error == null) {
+                recordLatency(System.nanoTime() - start);
+                result.complete(elevation);
+            } else if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(error);
+            }
+        });
+        ScheduledFuture<?> timer = hedgeTimer;
+        // Once there is a result, or the caller gave up, nothing else needs to run
+        result.whenComplete((elevation, error) -> {
+            primary.cancel(true);
+            if (timer != null) {
+                timer.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Send the hedge of a lookup still in flight, if the budget and the rate limit allow.
+     */
+    private void hedge(Coordinates coordinates, long start, CompletableFuture<Integer> primary,
+                       CompletableFuture<Integer> result, AtomicInteger pending) {
+        if (result.isDone()) {
+            return;
+        }
+        if (credits.getAndUpdate(available -> available >= HEDGE_CREDIT ? available - HEDGE_CREDIT : available)
+                < HEDGE_CREDIT) {
+            budgetExhausted.increment();
+            return;
+        }
+        if (rateLimiter != null && !rateLimiter.tryAcquire()) {
+            credits.updateAndGet(available -> Math.min(maxCredits, available + HEDGE_CREDIT));
+            rateLimited.increment();
+            return;
+        }
+        pending.incrementAndGet();
+        hedges.increment();
+        CompletableFuture<Integer> hedge = delegate.getElevationMetersAsync(coordinates);
+        hedge.whenComplete((elevation, error) -> {
+            if (error == null) {
+                // Cancelling succeeds only while the primary is still in flight, i.e. the hedge won
+                if (primary.cancel(true)) {
+                    hedgeWins.increment();
+                    recordLatency(System.nanoTime() - start);
+                }
+                result.complete(elevation);
+            } else if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(error);
+            }
+        });
+        result.whenComplete((elevation, error) -> hedge.cancel(true));
+    }
+
+    /**
+     * Add a lookup latency to the samples and recompute the hedge delay every few samples.
+     */
+    private void recordLatency(long latencyNanos) {
+        samplesLock.lock();
+        try {
+            samples[sampleIndex] = latencyNanos;
+            sampleIndex = (sampleIndex + 1) % samples.length;
+            sampleCount = Math.min(sampleCount + 1, samples.length);
+            if (sampleCount >= Math.min(32, samples.length) && sampleIndex % 16 == 0) {
+                long[] sorted = Arrays.copyOf(samples, sampleCount);
+                Arrays.sort(sorted);
+                int rank = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+                hedgeDelayNanos = Math.max(minDelayNanos, sorted[Math.max(0, rank)]);
+            }
+        } finally {
+            samplesLock.unlock();
+        }
+    }
+
+    public long primaryCount() {
+        return primaries.sum();
+    }
+
+    public long hedgeCount() {
+        return hedges.sum();
+    }
+
+    public long hedgeWinCount() {
+        return hedgeWins.sum();
+    }
+
+    public long budgetExhaustedCount() {
+        return budgetExhausted.sum();
+    }
+
+    /**
+     * @return number of hedges skipped because the upstream rate limiter had no token free
+     */
+    public long rateLimitedCount() {
+        return rateLimited.sum();
+    }
+
+    /**
+     * @return current delay after which a lookup is hedged, in nanoseconds
+     */
+    public long hedgeDelayNanos() {
+        return hedgeDelayNanos;
+    }
+
+    /**
+     * Stop the hedge scheduler; lookups in flight go on without hedges.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        super.close();
+    }
+}
@@ -0,0 +1,163 @@
+package com.oneday.service;
+
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.model.Coordinates;
+import com.oneday.util.Futures;
+import com.oneday.util.SingleFlight;
+import com.oneday.util.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.net.http.HttpTimeoutException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * {@link MapService} decorator timing the geocode and elevation stages.
+ * Each call is recorded in a timer tagged with its stage and outcome; failed calls are tagged
+ * with the kind of error, e.g. {@code timeout}, {@code http_429} or {@code circuit_open}.
+ * When this decorator runs the altitude pipeline, lookups answered with 0 altitude
+ * are also counted by the error that caused them.
+ */
+public class InstrumentedMapService extends MapServiceDecorator {
+
+    static final String SUCCESS = "success";
+
+    private final MeterRegistry registry;
+    private final String timerName;
+    private final Tags geocodeTags;
+    private final Tags elevationTags;
+    private final Timer geocodeSuccess;
+    private final Timer elevationSuccess;
+
+    /**
+     * @param timerName name of the stage timers
+     * @param geocodeTags tags of the geocode stage timers
+     * @param elevationTags tags of the elevation stage timers
+     */
+    public InstrumentedMapService(MapService delegate, MeterRegistry registry, String timerName,
+                                  Tags geocodeTags, Tags elevationTags, ErrorMessageProperties errorMessages) {
+        super(delegate, errorMessages);
+        this.registry = registry;
+        this.timerName = timerName;
+        this.geocodeTags = geocodeTags;
+        this.elevationTags = elevationTags;
+        this.geocodeSuccess = timer(geocodeTags, SUCCESS);
+        this.elevationSuccess = timer(elevationTags, SUCCESS);
+    }
+
+    @Override
+    public Coordinates geocodeAddress(String address) throws IllegalArgumentException {
+        return call(geocodeTags, geocodeSuccess, () -> delegate.geocodeAddress(address));
+    }
+
+    @Override
+    public CompletableFuture<Coordinates> geocodeAddressAsync(String address) {
+        return callAsync(geocodeTags, geocodeSuccess, () -> delegate.geocodeAddressAsync(address));
+    }
+
+    @Override
+    public int getElevationMeters(Coordinates coordinates) throws IllegalArgumentException {
+        return call(elevationTags, elevationSuccess, () -> delegate.getElevationMeters(coordinates));
+    }
+
+    @Override
+    public CompletableFuture<Integer> getElevationMetersAsync(Coordinates coordinates) {
+        return callAsync(elevationTags, elevationSuccess, () -> delegate.getElevationMetersAsync(coordinates));
+    }
+
+    @Override
+    public int[] getElevationsMeters(List<Coordinates> coordinates) throws IllegalArgumentException {
+        return call(elevationTags, elevationSuccess, () -> delegate.getElevationsMeters(coordinates));
+    }
+
+    @Override
+    protected void onFallbackToZeroAltitude(Throwable cause) {
+        Counter.builder("altitude.fallback")
+            .description("Altitude lookups answered with 0 altitude")
+            .tag("reason", outcome(cause))
+            .register(registry)
+            .increment();
+    }
+
+    private <T> T call(Tags tags, Timer success, Supplier<T> stage) {
+        long start = System.nanoTime();
+        try {
+            T result = stage.get();
+            success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (RuntimeException e) {
+            timer(tags, outcome(e)).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private <T> CompletableFuture<T> callAsync(Tags tags, Timer success, Supplier<CompletableFuture<T>> stage) {
+        long start = System.nanoTime();
+        CompletableFuture<T> result;
+        try {
+            result = stage.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        return Futures.propagateCancellation(result.whenComplete((value, error) -> {
+            Timer timer = error == null ? success : timer(tags, outcome(Futures.unwrap(error)));
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }), result);
+    }
+
+    private Timer timer(Tags tags, String outcome) {
+        return Timer.builder(timerName)
+            .tags(tags)
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+
+    /**
+     * Classify a failed lookup into a low-cardinality outcome tag.
+     */
+    static String outcome(Throwable error) {
+        if (error == null) {
+            return SUCCESS;
+        }
+        if (error instanceof UpstreamUnavailableException) {
+            return error.getCause() instanceof TokenBucketRateLimiter.RateLimitExceededException
+                ? "rate_limited" : "circuit_open";
+        }
+        if (error instanceof IllegalArgumentException) {
+            return "not_found";
+        }
+        if (error instanceof RestClientResponseException) {
+            return "http_" + ((RestClientResponseException) error).getRawStatusCode();
+        }
+        if (error instanceof SingleFlight.SingleFlightTimeoutException) {
+            return "timeout";
+        }
+        // The blocking client wraps I/O errors in a ResourceAccessException, the non-blocking one does not
+        Throwable ioError = error instanceof ResourceAccessException ? error.getCause() : error;
+        if (ioError instanceof SocketTimeoutException || ioError instanceof HttpTimeoutException) {
+            return "timeout";
+        }
+        if (ioError instanceof ConnectException || ioError instanceof UnknownHostException) {
+            return "connection";
+        }
+        if (error instanceof ResourceAccessException || error instanceof IOException) {
+            return "io";
+        }
+        if (error instanceof RestClientException) {
+            return "client";
+        }
+        return "other";
+    }
+}
@@ -1,79 +1,70 @@
 package com.oneday.service;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.oneday.config.ApiProperties;
 import com.oneday.config.ErrorMessageProperties;
 import com.oneday.config.ServiceMessageProperties;
+import com.oneday.model.Coordinates;
+import com.oneday.util.Futures;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.annotation.Primary;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
 import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
+/**
+ * {@link MapService} backed by OpenStreetMap Nominatim (geocoding) and Open-Elevation (elevation).
+ */
 @Service
-@Primary
-public class MapOsmService implements MapService {
+public class MapOsmService extends AbstractMapService {
 
-    private static final int MAX_ELEVATION_METERS = 20000;
-    private static final int MIN_ELEVATION_METERS = -500;
     private static final String NOMINATIM_QUERY_PARAMS = "?q=%s&format=json&limit=1&addressdetails=0";
 
     private final RestTemplate restTemplate;
+    private final HttpClient asyncHttpClient;
+    private final ObjectMapper objectMapper;
     private final Logger log = LoggerFactory.getLogger(MapOsmService.class);
     private final ApiProperties apiProperties;
     private final ServiceMessageProperties serviceMessages;
-    private final ErrorMessageProperties errorMessages;
 
-    public MapOsmService(RestTemplate restTemplate, ApiProperties apiProperties,
-                         ServiceMessageProperties serviceMessages, ErrorMessageProperties errorMessages) {
+    public MapOsmService(RestTemplate restTemplate, HttpClient asyncHttpClient, ObjectMapper objectMapper,
+                         ApiProperties apiProperties, ServiceMessageProperties serviceMessages,
+                         ErrorMessageProperties errorMessages) {
+        super(errorMessages);
         this.restTemplate = restTemplate;
+        this.asyncHttpClient = asyncHttpClient;
+        this.objectMapper = objectMapper;
         this.apiProperties = apiProperties;
         this.serviceMessages = serviceMessages;
-        this.errorMessages = errorMessages;
-    }
-
-    @Override
-    public int getAltitudeMeters(String address) throws IllegalArgumentException {
-        if (isInvalidAddress(address)) {
-            return 0;
-        }
-
-        try {
-            NominatimResult nominatimResult = geocodeAddress(address);
-            int elevation = getElevationFromCoordinates(nominatimResult.getLat(), nominatimResult.getLon());
-            return validateAndReturnElevation(elevation);
-        } catch (RestClientException e) {
-            log.error("External maps API call failed", e);
-            return 0;
-        } catch (Exception e) {
-            log.error("Unexpected error while getting altitude", e);
-            return 0;
-        }
-    }
-
-    /**
-     * Check if the address is valid (not null or blank).
-     */
-    private boolean isInvalidAddress(String address) {
-        return address == null || address.isBlank();
     }
 
     /**
      * Geocode address using Nominatim API to get latitude and longitude.
      *
      * @param address the address to geocode
-     * @return NominatimResult containing lat/lon
+     * @return coordinates of the first Nominatim result
      * @throws IllegalArgumentException if address cannot be geocoded
      */
-    private NominatimResult geocodeAddress(String address) {
+    @Override
+    public Coordinates geocodeAddress(String address) {
         String encodedAddress = URLEncoder.encode(address, StandardCharsets.UTF_8);
         String nominatimUrl = buildNominatimUrl(encodedAddress);
 
@@ -86,7 +77,31 @@ public class MapOsmService implements MapService {
         );
         NominatimResult[] results = response.getBody();
 
-        return validateNominatimResults(results, address);
+        return toCoordinates(validateNominatimResults(results, address));
+    }
+
+    /**
+     * Geocode address using Nominatim API with the non-blocking client.
+     *
+     * @param address the address to geocode
+     * @return future coordinates of the first Nominatim result
+     */
+    @Override
+    public CompletableFuture<Coordinates> geocodeAddressAsync(String address) {
+        String encodedAddress = URLEncoder.encode(address, StandardCharsets.UTF_8);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(buildNominatimUrl(encodedAddress)))
+            .header(HttpHeaders.USER_AGENT, apiProperties.getUserAgent())
+            .timeout(apiProperties.getHttp().getReadTimeout())
+            .GET()
+            .build();
+
+        CompletableFuture<NominatimResult[]> response = sendAsync(request, NominatimResult[].class);
+        return Futures.propagateCancellation(
+            response.thenApply(results -> toCoordinates(validateNominatimResults(results, address))), response);
+    }
+
+    private Coordinates toCoordinates(NominatimResult result) {
+        return new Coordinates(Double.parseDouble(result.getLat()), Double.parseDouble(result.getLon()));
     }
 
     /**
@@ -113,63 +128,109 @@ public class MapOsmService implements MapService {
     /**
      * Get elevation in meters from Open-Elevation API.
      *
-     * @param latitude the latitude
-     * @param longitude the longitude
+     * @param coordinates the coordinates to lookup
      * @return elevation in meters
      */
-    private int getElevationFromCoordinates(String latitude, String longitude) {
-        String elevationUrl = buildElevationUrl(latitude, longitude);
+    @Override
+    public int getElevationMeters(Coordinates coordinates) {
+        String elevationUrl = buildElevationUrl(coordinates);
         ElevationResponse elevationResponse = restTemplate.getForObject(
             elevationUrl, ElevationResponse.class
         );
 
-        return extractElevation(elevationResponse, latitude, longitude);
+        return extractElevation(elevationResponse, coordinates);
     }
 
     /**
-     * Build the complete Open-Elevation API URL.
+     * Get elevation in meters from Open-Elevation API with the non-blocking client.
+     *
+     * @param coordinates the coordinates to lookup
+     * @return future elevation in meters
      */
-    private String buildElevationUrl(String latitude, String longitude) {
-        return apiProperties.getElevationUrl() + "?locations=" + latitude + "," + longitude;
+    @Override
+    public CompletableFuture<Integer> getElevationMetersAsync(Coordinates coordinates) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(buildElevationUrl(coordinates)))
+            .timeout(apiProperties.getHttp().getReadTimeout())
+            .GET()
+            .build();
+
+        CompletableFuture<ElevationResponse> response = sendAsync(request, ElevationResponse.class);
+        return Futures.propagateCancellation(
+            response.thenApply(elevationResponse -> extractElevation(elevationResponse, coordinates)), response);
     }
 
     /**
-     * Extract elevation value from API response.
+     * Send a request with the non-blocking client and map the JSON response body.
+     * Non-2xx responses fail the future with a RestClientResponseException and unreadable bodies
+     * with a RestClientException, like their RestTemplate counterparts.
+     * Cancelling the returned future aborts the exchange.
+     */
+    private <T> CompletableFuture<T> sendAsync(HttpRequest request, Class<T> responseType) {
+        CompletableFuture<HttpResponse<byte[]>> exchange =
+            asyncHttpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        return Futures.propagateCancellation(exchange.thenApply(response -> {
+            if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                throw new RestClientResponseException(
+                    "Request to " + request.uri().getHost() + " failed with HTTP " + response.statusCode(),
+                    response.statusCode(), "", null, response.body(), StandardCharsets.UTF_8);
+            }
+            try {
+                return objectMapper.readValue(response.body(), responseType);
+            } catch (IOException e) {
+                throw new RestClientException("Unreadable response from " + request.uri().getHost(), e);
+            }
+        }), exchange);
+    }
+
+    /**
+     * Get elevations in meters for several coordinates with one Open-Elevation POST lookup.
      *
-     * @throws IllegalArgumentException if no elevation data found
+     * @param coordinates the coordinates to lookup
+     * @return elevations in meters, in the same order as the coordinates
+     * @throws IllegalArgumentException if the response does not hold one result per coordinate
      */
-    private int extractElevation(ElevationResponse elevationResponse,
-                                 String latitude, String longitude) {
+    @Override
+    public int[] getElevationsMeters(List<Coordinates> coordinates) {
+        ElevationResponse elevationResponse = restTemplate.postForObject(
+            apiProperties.getElevationUrl(), ElevationRequest.of(coordinates), ElevationResponse.class
+        );
+
         if (elevationResponse == null || elevationResponse.getResults() == null ||
-            elevationResponse.getResults().length == 0) {
-            log.warn(serviceMessages.getElevation().getNoResult(), latitude, longitude);
-            throw new IllegalArgumentException("Elevation data not found for coordinates: " + latitude + "," + longitude);
+            elevationResponse.getResults().length != coordinates.size()) {
+            log.warn("Open-Elevation returned an incomplete result for {} locations", coordinates.size());
+            throw new IllegalArgumentException("Elevation data not found for " + coordinates.size() + " locations");
         }
-        return (int) Math.round(elevationResponse.getResults()[0].getElevation());
+
+        int[] elevations = new int[coordinates.size()];
+        for (int i = 0; i < elevations.length; i++) {
+            elevations[i] = (int) Math.round(elevationResponse.getResults()[i].getElevation());
+        }
+        return elevations;
     }
 
     /**
-     * Validate elevation is within acceptable bounds.
-     *
-     * @param elevation elevation in meters
-     * @return the elevation if valid
-     * @throws IllegalArgumentException if elevation is invalid
+     * Build the complete Open-Elevation API URL.
+     * Coordinates are written in plain notation: Double.toString gives e.g. "1.0E-4" near the equator
+     * or the prime meridian, which the API does not parse as a number.
      */
-    private int validateAndReturnElevation(int elevation) {
-        if (!isValidElevation(elevation)) {
-            log.error("Invalid elevation value: {}. Must be between {} and {} meters",
-                elevation, MIN_ELEVATION_METERS, MAX_ELEVATION_METERS);
-            throw new IllegalArgumentException(errorMessages.getInvalidElevation());
-        }
-        return elevation;
+    private String buildElevationUrl(Coordinates coordinates) {
+        return apiProperties.getElevationUrl() + "?locations=" +
+            BigDecimal.valueOf(coordinates.getLatitude()).toPlainString() + "," +
+            BigDecimal.valueOf(coordinates.getLongitude()).toPlainString();
     }
 
     /**
-     * Check if elevation is within acceptable bounds.
-     * Realworld elevations range from ~-430m (Dead Sea) to ~8,849m (Mt. Everest)
+     * Extract elevation value from API response.
+     *
+     * @throws IllegalArgumentException if no elevation data found
      */
-    private boolean isValidElevation(int elevation) {
-        return elevation >= MIN_ELEVATION_METERS && elevation <= MAX_ELEVATION_METERS;
+    private int extractElevation(ElevationResponse elevationResponse, Coordinates coordinates) {
+        if (elevationResponse == null || elevationResponse.getResults() == null ||
+            elevationResponse.getResults().length == 0) {
+            log.warn(serviceMessages.getElevation().getNoResult(), coordinates.getLatitude(), coordinates.getLongitude());
+            throw new IllegalArgumentException("Elevation data not found for coordinates: " + coordinates);
+        }
+        return (int) Math.round(elevationResponse.getResults()[0].getElevation());
     }
 
     @JsonIgnoreProperties(ignoreUnknown = true)
@@ -194,6 +255,61 @@ public class MapOsmService implements MapService {
         }
     }
 
+    /**
+     * Multi-location request body for the Open-Elevation POST lookup.
+     */
+    public static class ElevationRequest {
+        private List<Location> locations;
+
+        static ElevationRequest of(List<Coordinates> coordinates) {
+            ElevationRequest request = new ElevationRequest();
+            request.setLocations(coordinates.stream()
+                .map(c -> new Location(c.getLatitude(), c.getLongitude()))
+                .collect(Collectors.toList()));
+            return request;
+        }
+
+        public List<Location> getLocations() {
+            return locations;
+        }
+
+        public void setLocations(List<Location> locations) {
+            this.locations = locations;
+        }
+    }
+
+    /**
+     * Single location of an Open-Elevation POST lookup.
+     */
+    public static class Location {
+        private double latitude;
+        private double longitude;
+
+        public Location() {
+        }
+
+        public Location(double latitude, double longitude) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+
+        public double getLatitude() {
+            return latitude;
+        }
+
+        public void setLatitude(double latitude) {
+            this.latitude = latitude;
+        }
+
+        public double getLongitude() {
+            return longitude;
+        }
+
+        public void setLongitude(double longitude) {
+            this.longitude = longitude;
+        }
+    }
+
     /**
      * Response from Open-Elevation API.
      */
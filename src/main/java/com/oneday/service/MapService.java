@@ -1,5 +1,10 @@
 package com.oneday.service;
 
+import com.oneday.model.Coordinates;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Service interface for map and altitude-related operations.
  */
@@ -10,7 +15,99 @@ public interface MapService {
      * @param address the address to lookup
      * @return altitude in meters, or 0 if unable to determine
      * @throws IllegalArgumentException if the address or altitude data is invalid
+     * @throws UpstreamUnavailableException if an upstream is known to be down and was not called
      */
     int getAltitudeMeters(String address) throws IllegalArgumentException;
-}
 
+    /**
+     * Get altitude in meters for a given address without blocking the calling thread.
+     *
+     * @param address the address to lookup
+     * @return future altitude in meters, completing with 0 if unable to determine
+     */
+    CompletableFuture<Integer> getAltitudeMetersAsync(String address);
+
+    /**
+     * Get altitude in meters for coordinates the caller already holds, skipping geocoding.
+     *
+     * @param coordinates the coordinates to lookup
+     * @return altitude in meters, or 0 if unable to determine
+     * @throws UpstreamUnavailableException if the elevation upstream is known to be down and was not called
+     */
+    int getAltitudeMetersAt(Coordinates coordinates);
+
+    /**
+     * Get altitude in meters for known coordinates without blocking the calling thread.
+     *
+     * @param coordinates the coordinates to lookup
+     * @return future altitude in meters, completing with 0 if unable to determine
+     */
+    CompletableFuture<Integer> getAltitudeMetersAtAsync(Coordinates coordinates);
+
+    /**
+     * Geocode an address to latitude and longitude.
+     *
+     * @param address the address to geocode
+     * @return coordinates of the address
+     * @throws IllegalArgumentException if the address cannot be geocoded
+     */
+    Coordinates geocodeAddress(String address) throws IllegalArgumentException;
+
+    /**
+     * Get elevation in meters for the given coordinates.
+     *
+     * @param coordinates the coordinates to lookup
+     * @return elevation in meters
+     * @throws IllegalArgumentException if no elevation data is available for the coordinates
+     */
+    int getElevationMeters(Coordinates coordinates) throws IllegalArgumentException;
+
+    /**
+     * Get elevations in meters for several coordinates at once.
+     * Implementations backed by a multi-location API should override this;
+     * the default looks the coordinates up one by one.
+     *
+     * @param coordinates the coordinates to lookup
+     * @return elevations in meters, in the same order as the coordinates
+     * @throws IllegalArgumentException if no elevation data is available for the coordinates
+     */
+    default int[] getElevationsMeters(List<Coordinates> coordinates) throws IllegalArgumentException {
+        int[] elevations = new int[coordinates.size()];
+        for (int i = 0; i < elevations.length; i++) {
+            elevations[i] = getElevationMeters(coordinates.get(i));
+        }
+        return elevations;
+    }
+
+    /**
+     * Geocode an address without blocking the calling thread.
+     * Implementations backed by a non-blocking client should override this;
+     * the default runs {@link #geocodeAddress(String)} on the calling thread.
+     *
+     * @param address the address to geocode
+     * @return future coordinates, failing with IllegalArgumentException if the address cannot be geocoded
+     */
+    default CompletableFuture<Coordinates> geocodeAddressAsync(String address) {
+        try {
+            return CompletableFuture.completedFuture(geocodeAddress(address));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Get elevation for the given coordinates without blocking the calling thread.
+     * Implementations backed by a non-blocking client should override this;
+     * the default runs {@link #getElevationMeters(Coordinates)} on the calling thread.
+     *
+     * @param coordinates the coordinates to lookup
+     * @return future elevation in meters
+     */
+    default CompletableFuture<Integer> getElevationMetersAsync(Coordinates coordinates) {
+        try {
+            return CompletableFuture.completedFuture(getElevationMeters(coordinates));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.oneday.service;
+
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.model.Coordinates;
+import com.oneday.util.Addresses;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Base class for {@link MapService} decorators.
+ * Forwards each stage to the wrapped service; subclasses override the stages they enhance.
+ * The altitude pipeline always runs through this decorator's own stages, so stacked
+ * decorators compose from the outermost one inwards.
+ * Closing a decorator closes the decorators it wraps.
+ */
+public abstract class MapServiceDecorator extends AbstractMapService implements AutoCloseable {
+
+    protected final MapService delegate;
+
+    protected MapServiceDecorator(MapService delegate, ErrorMessageProperties errorMessages) {
+        super(errorMessages);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Coordinates geocodeAddress(String address) throws IllegalArgumentException {
+        return delegate.geocodeAddress(address);
+    }
+
+    @Override
+    public int getElevationMeters(Coordinates coordinates) throws IllegalArgumentException {
+        return delegate.getElevationMeters(coordinates);
+    }
+
+    @Override
+    public CompletableFuture<Coordinates> geocodeAddressAsync(String address) {
+        return delegate.geocodeAddressAsync(address);
+    }
+
+    @Override
+    public CompletableFuture<Integer> getElevationMetersAsync(Coordinates coordinates) {
+        return delegate.getElevationMetersAsync(coordinates);
+    }
+
+    @Override
+    public int[] getElevationsMeters(List<Coordinates> coordinates) throws IllegalArgumentException {
+        return delegate.getElevationsMeters(coordinates);
+    }
+
+    /**
+     * Stop the threads owned by this decorator and close the wrapped decorators.
+     * Decorators owning threads override this, stopping them before calling super.
+     */
+    @Override
+    public void close() {
+        if (delegate instanceof MapServiceDecorator) {
+            ((MapServiceDecorator) delegate).close();
+        }
+    }
+
+    /**
+     * Normalize an address for use as a lookup key.
+     */
+    protected static String normalizeAddress(String address) {
+        return Addresses.normalize(address);
+    }
+}
@@ -0,0 +1,108 @@
+package com.oneday.service;
+
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.model.Coordinates;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link MapService} decorator serving geocode and elevation results from a {@link PersistentLookupStore},
+ * so results fetched before a restart are not fetched again. Only successful results are stored.
+ * {@link #writeThrough()} gives a view that always looks addresses up upstream, for cache refreshes.
+ */
+public class PersistentCacheMapService extends MapServiceDecorator {
+
+    private final PersistentLookupStore store;
+
+    public PersistentCacheMapService(MapService delegate, PersistentLookupStore store,
+                                     ErrorMessageProperties errorMessages) {
+        super(delegate, errorMessages);
+        this.store = store;
+    }
+
+    @Override
+    public Coordinates geocodeAddress(String address) throws IllegalArgumentException {
+        String key = normalizeAddress(address);
+        Coordinates stored = store.getCoordinates(key);
+        if (stored != null) {
+            return stored;
+        }
+        Coordinates coordinates = delegate.geocodeAddress(address);
+        store.putCoordinates(key, coordinates);
+        return coordinates;
+    }
+
+    @Override
+    public CompletableFuture<Coordinates> geocodeAddressAsync(String address) {
+        String key = normalizeAddress(address);
+        Coordinates stored = store.getCoordinates(key);
+        if (stored != null) {
+            return CompletableFuture.completedFuture(stored);
+        }
+        return delegate.geocodeAddressAsync(address).thenApply(coordinates -> {
+            store.putCoordinates(key, coordinates);
+            return coordinates;
+        });
+    }
+
+    /**
+     * Get a view geocoding every address upstream and storing the result, without serving stored results.
+     * Refreshing a stale in-memory entry through this class would otherwise get the stored coordinates back.
+     */
+    public MapService writeThrough() {
+        return new WriteThrough();
+    }
+
+    @Override
+    public int getElevationMeters(Coordinates coordinates) throws IllegalArgumentException {
+        Integer stored = store.getElevation(coordinates);
+        if (stored != null) {
+            return stored;
+        }
+        int elevation = delegate.getElevationMeters(coordinates);
+        store.putElevation(coordinates, elevation);
+        return elevation;
+    }
+
+    @Override
+    public CompletableFuture<Integer> getElevationMetersAsync(Coordinates coordinates) {
+        Integer stored = store.getElevation(coordinates);
+        if (stored != null) {
+            return CompletableFuture.completedFuture(stored);
+        }
+        return delegate.getElevationMetersAsync(coordinates).thenApply(elevation -> {
+            store.putElevation(coordinates, elevation);
+            return elevation;
+        });
+    }
+
+    private class WriteThrough extends MapServiceDecorator {
+
+        WriteThrough() {
+            super(PersistentCacheMapService.this.delegate, PersistentCacheMapService.this.errorMessages);
+        }
+
+        @Override
+        public Coordinates geocodeAddress(String address) throws IllegalArgumentException {
+            Coordinates coordinates = delegate.geocodeAddress(address);
+            store.putCoordinates(normalizeAddress(address), coordinates);
+            return coordinates;
+        }
+
+        @Override
+        public CompletableFuture<Coordinates> geocodeAddressAsync(String address) {
+            String key = normalizeAddress(address);
+            return delegate.geocodeAddressAsync(address).thenApply(coordinates -> {
+                store.putCoordinates(key, coordinates);
+                return coordinates;
+            });
+        }
+
+        /**
+         * The chain below is closed with the service this is a view of.
+         */
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,406 @@
+package com.oneday.service;
+
+import com.oneday.config.CacheProperties;
+import com.oneday.model.Coordinates;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * On-disk store of geocode and elevation results that survives restarts.
+ * Results are kept in an append-only log and indexed in memory. New results are appended
+ * asynchronously by a background writer, so lookups never wait for disk I/O; writes are
+ * dropped when the write queue is full.
+ * <p>
+ * The log is streamed into the index when the store is opened, and compacted then and
+ * periodically by the writer: expired results are swept from the index, the oldest results
+ * beyond the configured maximum per kind are dropped, and the log is rewritten with the live
+ * results only. Exceeding the maximum triggers a compaction without waiting for the interval,
+ * so both the index and the log stay bounded.
+ */
+public class PersistentLookupStore implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PersistentLookupStore.class);
+    private static final byte GEOCODE_RECORD = 1;
+    private static final byte ELEVATION_RECORD = 2;
+    // Longest address DataOutput.writeUTF can encode, in bytes of modified UTF-8
+    private static final int MAX_ADDRESS_BYTES = 65535;
+
+    private final Path file;
+    private final long maxAgeMillis;
+    private final int maxEntries;
+    private final long compactionIntervalNanos;
+    private final Clock clock;
+    private final Map<String, Entry<Coordinates>> geocodes = new ConcurrentHashMap<>();
+    private final Map<Coordinates, Entry<Integer>> elevations = new ConcurrentHashMap<>();
+    private final BlockingQueue<Record> writeQueue;
+    private final LongAdder droppedWrites = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final AtomicBoolean compactionRequested = new AtomicBoolean();
+    // Guards the log file and its output stream
+    private final ReentrantLock logLock = new ReentrantLock();
+    private DataOutputStream out;
+    private final Thread writer;
+    private volatile boolean closed;
+
+    public PersistentLookupStore(CacheProperties.Persistent properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    PersistentLookupStore(CacheProperties.Persistent properties, Clock clock) {
+        this.file = Paths.get(properties.getFile());
+        this.maxAgeMillis = properties.getMaxAge().toMillis();
+        this.maxEntries = properties.getMaxEntries();
+        this.compactionIntervalNanos = properties.getCompactionInterval().toNanos();
+        this.clock = clock;
+        this.writeQueue = new ArrayBlockingQueue<>(properties.getWriteQueueCapacity());
+        try {
+            load();
+            this.out = openLog();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open lookup store " + file, e);
+        }
+        this.writer = new Thread(this::writeBehind, "lookup-store-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * @return stored coordinates for a normalized address, or null if absent or expired
+     */
+    public Coordinates getCoordinates(String address) {
+        return valueOf(geocodes.get(address));
+    }
+
+    /**
+     * @return stored elevation for the coordinates, or null if absent or expired
+     */
+    public Integer getElevation(Coordinates coordinates) {
+        return valueOf(elevations.get(coordinates));
+    }
+
+    /**
+     * Store a geocode result. Addresses too long to be written to the log are not stored.
+     */
+    public void putCoordinates(String address, Coordinates coordinates) {
+        if (!fitsRecord(address)) {
+            log.debug("Not storing geocode result for an address of {} characters", address.length());
+            return;
+        }
+        long now = clock.millis();
+        geocodes.put(address, new Entry<>(coordinates, now));
+        enqueue(new Record(GEOCODE_RECORD, now, address, coordinates, 0));
+        requestCompactionIfFull(geocodes);
+    }
+
+    public void putElevation(Coordinates coordinates, int elevation) {
+        long now = clock.millis();
+        elevations.put(coordinates, new Entry<>(elevation, now));
+        enqueue(new Record(ELEVATION_RECORD, now, null, coordinates, elevation));
+        requestCompactionIfFull(elevations);
+    }
+
+    public int geocodeCount() {
+        return geocodes.size();
+    }
+
+    public int elevationCount() {
+        return elevations.size();
+    }
+
+    public long droppedWrites() {
+        return droppedWrites.sum();
+    }
+
+    /**
+     * @return results dropped from the store because it was full
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Write the queued records and close the log.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+            List<Record> remaining = new ArrayList<>();
+            writeQueue.drainTo(remaining);
+            writeAll(remaining);
+            logLock.lock();
+            try {
+                out.close();
+            } finally {
+                logLock.unlock();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("Failed to close lookup store {}", file, e);
+        }
+    }
+
+    private <V> V valueOf(Entry<V> entry) {
+        return entry == null || isExpired(entry.writtenAt) ? null : entry.value;
+    }
+
+    private boolean isExpired(long writtenAt) {
+        return clock.millis() - writtenAt > maxAgeMillis;
+    }
+
+    private void enqueue(Record record) {
+        if (!writeQueue.offer(record)) {
+            droppedWrites.increment();
+        }
+    }
+
+    /**
+     * @return whether the address encodes to at most {@link #MAX_ADDRESS_BYTES} bytes of modified UTF-8
+     */
+    static boolean fitsRecord(String address) {
+        if (address.length() <= MAX_ADDRESS_BYTES / 3) {
+            return true;
+        }
+        long bytes = 0;
+        for (int i = 0; i < address.length(); i++) {
+            char c = address.charAt(i);
+            bytes += c >= 0x0001 && c <= 0x007F ? 1 : c <= 0x07FF ? 2 : 3;
+        }
+        return bytes <= MAX_ADDRESS_BYTES;
+    }
+
+    private void requestCompactionIfFull(Map<?, ?> entries) {
+        if (entries.size() > maxEntries) {
+            compactionRequested.set(true);
+        }
+    }
+
+    private void writeBehind() {
+        List<Record> batch = new ArrayList<>();
+        long nextCompaction = System.nanoTime() + compactionIntervalNanos;
+        while (!closed) {
+            try {
+                Record first = writeQueue.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    writeQueue.drainTo(batch);
+                    writeAll(batch);
+                }
+                if (compactionRequested.get() || System.nanoTime() - nextCompaction >= 0) {
+                    compact();
+                    nextCompaction = System.nanoTime() + compactionIntervalNanos;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                log.warn("Failed to write lookup store {}", file, e);
+            }
+            batch.clear();
+        }
+    }
+
+    private void writeAll(List<Record> records) throws IOException {
+        logLock.lock();
+        try {
+            for (Record record : records) {
+                record.writeTo(out);
+            }
+            out.flush();
+        } finally {
+            logLock.unlock();
+        }
+    }
+
+    /**
+     * Sweep the index and rewrite the log with the live results only, while appends wait.
+     * Results put during the rewrite are in the index or still queued, so none are lost.
+     */
+    void compact() throws IOException {
+        compactionRequested.set(false);
+        logLock.lock();
+        try {
+            sweep();
+            out.close();
+            try {
+                rewriteLog();
+            } finally {
+                out = openLog();
+            }
+        } finally {
+            logLock.unlock();
+        }
+        log.debug("Compacted lookup store {} to {} geocode and {} elevation results",
+            file, geocodes.size(), elevations.size());
+    }
+
+    /**
+     * Drop expired results, then the oldest results beyond the maximum per kind.
+     */
+    private void sweep() {
+        long now = clock.millis();
+        sweep(geocodes, now);
+        sweep(elevations, now);
+    }
+
+    private <K, V> void sweep(Map<K, Entry<V>> entries, long now) {
+        entries.entrySet().removeIf(entry -> now - entry.getValue().writtenAt > maxAgeMillis);
+        int excess = entries.size() - maxEntries;
+        if (excess <= 0) {
+            return;
+        }
+        // Drop down to 90% of the maximum, so the next few puts do not trigger another compaction
+        int toDrop = excess + maxEntries / 10;
+        List<Map.Entry<K, Entry<V>>> oldestFirst = new ArrayList<>(entries.entrySet());
+        oldestFirst.sort(Comparator.comparingLong(entry -> entry.getValue().writtenAt));
+        for (Map.Entry<K, Entry<V>> entry : oldestFirst.subList(0, Math.min(toDrop, oldestFirst.size()))) {
+            if (entries.remove(entry.getKey(), entry.getValue())) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private DataOutputStream openLog() throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file.toFile(), true)));
+    }
+
+    /**
+     * Stream the log into the in-memory index and rewrite it with live entries only.
+     */
+    private void load() throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        int records = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            try {
+                for (int type = in.read(); type >= 0; type = in.read()) {
+                    Record record = Record.readFrom((byte) type, in);
+                    records++;
+                    if (isExpired(record.writtenAt)) {
+                        continue;
+                    }
+                    if (record.type == GEOCODE_RECORD) {
+                        geocodes.merge(record.address, new Entry<>(record.coordinates, record.writtenAt), Entry::newest);
+                    } else {
+                        elevations.merge(record.coordinates, new Entry<>(record.elevation, record.writtenAt), Entry::newest);
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Truncated or malformed, e.g. invalid UTF: keep the records before it, the rewrite below drops the rest
+                log.warn("Ignoring truncated or corrupt tail of lookup store {} after {} records", file, records, e);
+            }
+        }
+
+        sweep();
+        rewriteLog();
+        log.info("Loaded {} geocode and {} elevation results from lookup store {} ({} records)",
+            geocodes.size(), elevations.size(), file, records);
+    }
+
+    private void rewriteLog() throws IOException {
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        try (DataOutputStream compactOut = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(compacted)))) {
+            for (Map.Entry<String, Entry<Coordinates>> geocode : geocodes.entrySet()) {
+                new Record(GEOCODE_RECORD, geocode.getValue().writtenAt, geocode.getKey(),
+                    geocode.getValue().value, 0).writeTo(compactOut);
+            }
+            for (Map.Entry<Coordinates, Entry<Integer>> elevation : elevations.entrySet()) {
+                new Record(ELEVATION_RECORD, elevation.getValue().writtenAt, null,
+                    elevation.getKey(), elevation.getValue().value).writeTo(compactOut);
+            }
+        }
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long writtenAt;
+
+        Entry(V value, long writtenAt) {
+            this.value = value;
+            this.writtenAt = writtenAt;
+        }
+
+        static <V> Entry<V> newest(Entry<V> a, Entry<V> b) {
+            return b.writtenAt >= a.writtenAt ? b : a;
+        }
+    }
+
+    /**
+     * Log record: type, write time, then the address and coordinates of a geocode result,
+     * or the coordinates and elevation of an elevation result.
+     */
+    private static final class Record {
+        private final byte type;
+        private final long writtenAt;
+        private final String address;
+        private final Coordinates coordinates;
+        private final int elevation;
+
+        Record(byte type, long writtenAt, String address, Coordinates coordinates, int elevation) {
+            this.type = type;
+            this.writtenAt = writtenAt;
+            this.address = address;
+            this.coordinates = coordinates;
+            this.elevation = elevation;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeByte(type);
+            out.writeLong(writtenAt);
+            if (type == GEOCODE_RECORD) {
+                out.writeUTF(address);
+            }
+            out.writeDouble(coordinates.getLatitude());
+            out.writeDouble(coordinates.getLongitude());
+            if (type == ELEVATION_RECORD) {
+                out.writeInt(elevation);
+            }
+        }
+
+        /**
+         * Read the rest of a record whose type byte has been read.
+         */
+        static Record readFrom(byte type, DataInputStream in) throws IOException {
+            if (type != GEOCODE_RECORD && type != ELEVATION_RECORD) {
+                throw new IllegalStateException("Unknown record type " + type);
+            }
+            long writtenAt = in.readLong();
+            String address = type == GEOCODE_RECORD ? in.readUTF() : null;
+            Coordinates coordinates = new Coordinates(in.readDouble(), in.readDouble());
+            int elevation = type == ELEVATION_RECORD ? in.readInt() : 0;
+            return new Record(type, writtenAt, address, coordinates, elevation);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.oneday.service;
+
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.model.Coordinates;
+import com.oneday.util.CircuitBreaker;
+import com.oneday.util.Futures;
+import com.oneday.util.LookupPriority;
+import com.oneday.util.TokenBucketRateLimiter;
+import io.opentelemetry.context.Context;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link MapService} decorator pacing upstream calls with a token bucket per upstream host.
+ * Callers wait for a token in a queue where interactive lookups go before batch lookups;
+ * calls rejected by the limiter fail with {@link UpstreamUnavailableException}, so the response is reported
+ * as degraded rather than with a 0 altitude. A null limiter leaves that stage unlimited.
+ * When the circuit breakers of the hosts are given, a call whose breaker is open fails before
+ * waiting for a token, so it fails fast even while the limiter is saturated.
+ * Calls granted asynchronously run in the caller's trace context and lookup priority.
+ * The limiters are owned by this decorator and closed with it.
+ */
+public class RateLimitedMapService extends MapServiceDecorator {
+
+    private final TokenBucketRateLimiter geocodeLimiter;
+    private final TokenBucketRateLimiter elevationLimiter;
+    private final CircuitBreaker geocodeBreaker;
+    private final CircuitBreaker elevationBreaker;
+
+    public RateLimitedMapService(MapService delegate, TokenBucketRateLimiter geocodeLimiter,
+                                 TokenBucketRateLimiter elevationLimiter, ErrorMessageProperties errorMessages) {
+        this(delegate, geocodeLimiter, elevationLimiter, null, null, errorMessages);
+    }
+
+    /**
+     * @param geocodeBreaker breaker of the geocode host checked before waiting for a token, or null
+     * @param elevationBreaker breaker of the elevation host checked before waiting for a token, or null
+     */
+    public RateLimitedMapService(MapService delegate, TokenBucketRateLimiter geocodeLimiter,
+                                 TokenBucketRateLimiter elevationLimiter, CircuitBreaker geocodeBreaker,
+                                 CircuitBreaker elevationBreaker, ErrorMessageProperties errorMessages) {
+        super(delegate, errorMessages);
+        this.geocodeLimiter = geocodeLimiter;
+        this.elevationLimiter = elevationLimiter;
+        this.geocodeBreaker = geocodeBreaker;
+        this.elevationBreaker = elevationBreaker;
+    }
+
+    @Override
+    public Coordinates geocodeAddress(String address) throws IllegalArgumentException {
+        checkBreaker(geocodeBreaker);
+        acquire(geocodeLimiter);
+        return delegate.geocodeAddress(address);
+    }
+
+    @Override
+    public CompletableFuture<Coordinates> geocodeAddressAsync(String address) {
+        try {
+            checkBreaker(geocodeBreaker);
+        } catch (UpstreamUnavailableException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return acquireAsync(geocodeLimiter)
+            .thenCompose(Context.current().wrapFunction(LookupPriority.current().wrapFunction(
+                granted -> delegate.geocodeAddressAsync(address))));
+    }
+
+    @Override
+    public int getElevationMeters(Coordinates coordinates) throws IllegalArgumentException {
+        checkBreaker(elevationBreaker);
+        acquire(elevationLimiter);
+        return delegate.getElevationMeters(coordinates);
+    }
+
+    @Override
+    public CompletableFuture<Integer> getElevationMetersAsync(Coordinates coordinates) {
+        try {
+            checkBreaker(elevationBreaker);
+        } catch (UpstreamUnavailableException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return acquireAsync(elevationLimiter)
+            .thenCompose(Context.current().wrapFunction(LookupPriority.current().wrapFunction(
+                granted -> delegate.getElevationMetersAsync(coordinates))));
+    }
+
+    @Override
+    public int[] getElevationsMeters(List<Coordinates> coordinates) throws IllegalArgumentException {
+        // One multi-location request costs one token
+        checkBreaker(elevationBreaker);
+        acquire(elevationLimiter);
+        return delegate.getElevationsMeters(coordinates);
+    }
+
+    @Override
+    public void close() {
+        if (geocodeLimiter != null) {
+            geocodeLimiter.close();
+        }
+        if (elevationLimiter != null && elevationLimiter != geocodeLimiter) {
+            elevationLimiter.close();
+        }
+        super.close();
+    }
+
+    private void checkBreaker(CircuitBreaker breaker) {
+        if (breaker == null) {
+            return;
+        }
+        try {
+            breaker.checkPermission();
+        } catch (CircuitBreaker.CallNotPermittedException e) {
+            throw new UpstreamUnavailableException(e.getMessage(), e);
+        }
+    }
+
+    private void acquire(TokenBucketRateLimiter limiter) {
+        if (limiter == null) {
+            return;
+        }
+        try {
+            limiter.acquire(LookupPriority.current());
+        } catch (TokenBucketRateLimiter.RateLimitExceededException e) {
+            throw new UpstreamUnavailableException(e.getMessage(), e);
+        }
+    }
+
+    private CompletableFuture<Long> acquireAsync(TokenBucketRateLimiter limiter) {
+        if (limiter == null) {
+            return CompletableFuture.completedFuture(0L);
+        }
+        return limiter.acquireAsync(LookupPriority.current()).exceptionally(error -> {
+            Throwable cause = Futures.unwrap(error);
+            throw new UpstreamUnavailableException(cause.getMessage(), cause);
+        });
+    }
+}
@@ -0,0 +1,76 @@
+package com.oneday.service;
+
+import com.oneday.model.TemperatureSnapshot;
+import com.oneday.repository.AltitudeOffsetRangeRepository;
+import com.oneday.repository.PostalCentroidRepository;
+import com.oneday.repository.PostalTemperatureRepository;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the current {@link TemperatureSnapshot} of the temperature datasets.
+ * The snapshot is rebuilt from the database by {@link #refresh()} whenever the datasets are (re)loaded,
+ * and swapped atomically, so readers always see a complete dataset version.
+ * Requests read the snapshot only; the repositories are queried, in a traced span, on refresh.
+ */
+@Component
+public class TemperatureLookupTables {
+
+    private static final Logger log = LoggerFactory.getLogger(TemperatureLookupTables.class);
+
+    private final PostalTemperatureRepository repository;
+    private final AltitudeOffsetRangeRepository altitudeOffsetRangeRepository;
+    private final PostalCentroidRepository centroidRepository;
+    private final Tracer tracer;
+    private final AtomicLong versions = new AtomicLong();
+    private volatile TemperatureSnapshot snapshot = TemperatureSnapshot.empty();
+
+    public TemperatureLookupTables(PostalTemperatureRepository repository,
+                                   AltitudeOffsetRangeRepository altitudeOffsetRangeRepository,
+                                   PostalCentroidRepository centroidRepository, Tracer tracer) {
+        this.repository = repository;
+        this.altitudeOffsetRangeRepository = altitudeOffsetRangeRepository;
+        this.centroidRepository = centroidRepository;
+        this.tracer = tracer;
+    }
+
+    /**
+     * Rebuild the snapshot from the database as a new dataset version.
+     * Overlapping or gapped altitude offset ranges are logged; invalid ranges
+     * fail the refresh and the previous snapshot stays in use.
+     *
+     * @throws IllegalArgumentException if the altitude offset ranges are invalid
+     */
+    public void refresh() {
+        Span span = tracer.spanBuilder("temperature.tables.refresh").startSpan();
+        try (Scope ignored = span.makeCurrent()) {
+            TemperatureSnapshot refreshed = TemperatureSnapshot.of(versions.incrementAndGet(), repository.findAll(),
+                altitudeOffsetRangeRepository.findAllByOrderByFromMetersAsc(), centroidRepository.findAll());
+            refreshed.offsets().validationWarnings()
+                .forEach(warning -> log.warn("Altitude offset ranges: {}", warning));
+            snapshot = refreshed;
+            span.setAttribute("version", refreshed.version());
+            log.info("Temperature lookup tables refreshed to version {}", refreshed.version());
+        } catch (RuntimeException e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * @return the current snapshot; empty until the datasets are loaded
+     */
+    public TemperatureSnapshot current() {
+        return snapshot;
+    }
+}
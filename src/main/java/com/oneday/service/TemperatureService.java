@@ -2,38 +2,42 @@ package com.oneday.service;
 
 import com.oneday.config.ErrorMessageProperties;
 import com.oneday.config.ServiceMessageProperties;
-import com.oneday.model.AltitudeOffsetRange;
-import com.oneday.model.PostalTemperature;
-import com.oneday.repository.AltitudeOffsetRangeRepository;
-import com.oneday.repository.PostalTemperatureRepository;
+import com.oneday.model.AltitudeOffsetIndex;
+import com.oneday.model.TemperatureSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service for temperature-related operations based on postal codes and altitude.
+ * Reads the in-memory {@link TemperatureSnapshot} of the datasets, so the lookups
+ * cost no database round-trips.
  */
 @Service
 public class TemperatureService {
 
     private static final Logger log = LoggerFactory.getLogger(TemperatureService.class);
 
-    private final PostalTemperatureRepository repository;
+    private final TemperatureLookupTables lookupTables;
     private final MapService mapService;
-    private final AltitudeOffsetRangeRepository altitudeOffsetRangeRepository;
     private final ErrorMessageProperties errorMessages;
     private final ServiceMessageProperties serviceMessages;
+    private final Timer lookupTimer;
 
-    public TemperatureService(PostalTemperatureRepository repository, MapService mapService,
-                              AltitudeOffsetRangeRepository altitudeOffsetRangeRepository,
-                              ErrorMessageProperties errorMessages, ServiceMessageProperties serviceMessages) {
-        this.repository = repository;
+    public TemperatureService(TemperatureLookupTables lookupTables, MapService mapService,
+                              ErrorMessageProperties errorMessages, ServiceMessageProperties serviceMessages,
+                              MeterRegistry meterRegistry) {
+        this.lookupTables = lookupTables;
         this.mapService = mapService;
-        this.altitudeOffsetRangeRepository = altitudeOffsetRangeRepository;
         this.errorMessages = errorMessages;
         this.serviceMessages = serviceMessages;
+        this.lookupTimer = Timer.builder("temperature.lookup")
+            .description("Base temperature and altitude offset lookups")
+            .register(meterRegistry);
     }
 
     /**
@@ -46,31 +50,57 @@ public class TemperatureService {
      * @throws IllegalArgumentException if postal code is not found
      */
     public double getStandardMinTemperature(String postalCode, String address) throws IllegalArgumentException {
-        String normalizedPostalCode = normalizePostalPrefix(postalCode);
-        double baseTemperature = getBaseTemperatureOrThrow(normalizedPostalCode);
+        return getStandardMinTemperature(postalCode, mapService.getAltitudeMeters(address));
+    }
+
+    /**
+     * Get the standard minimum temperature for a given postal code and an already resolved altitude.
+     * Use this overload when the caller has resolved the altitude itself, so the address
+     * is not geocoded a second time.
+     *
+     * @param postalCode the postal code (first 2 digits used)
+     * @param altitude altitude in meters
+     * @return adjusted minimum temperature in Celsius
+     * @throws IllegalArgumentException if postal code is not found or altitude exceeds the configured ranges
+     */
+    public double getStandardMinTemperature(String postalCode, int altitude) throws IllegalArgumentException {
+        long start = System.nanoTime();
+        try {
+            return computeStandardMinTemperature(postalCode, altitude);
+        } finally {
+            lookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
 
-        int altitude = mapService.getAltitudeMeters(address);
-        double temperatureOffset = getAltitudeOffsetForMeters(altitude);
+    private double computeStandardMinTemperature(String postalCode, int altitude) {
+        TemperatureSnapshot snapshot = lookupTables.current();
+        double baseTemperature = getBaseTemperatureOrThrow(snapshot, postalCode);
+
+        double temperatureOffset = getAltitudeOffsetForMeters(snapshot.offsets(), altitude);
 
         double adjustedTemperature = baseTemperature + temperatureOffset;
 
-        log.debug("Temperature calculation for postal code {}: base={}, altitude={}, offset={}, result={}",
-                normalizedPostalCode, baseTemperature, altitude, temperatureOffset, adjustedTemperature);
+        if (log.isDebugEnabled()) {
+            log.debug("Temperature calculation for postal code {}: base={}, altitude={}, offset={}, result={}",
+                    normalizePostalPrefix(postalCode), baseTemperature, altitude, temperatureOffset, adjustedTemperature);
+        }
 
         return adjustedTemperature;
     }
 
     /**
-     * Get base temperature for postal code from database.
+     * Get base temperature for postal code from the snapshot.
      *
-     * @param postalCode normalized postal code (2 digits)
+     * @param postalCode raw postal code (first 2 characters used)
      * @return base minimum temperature in Celsius
      * @throws IllegalArgumentException if postal code not found
      */
-    private double getBaseTemperatureOrThrow(String postalCode) throws IllegalArgumentException {
-        return repository.findById(postalCode)
-                .map(PostalTemperature::getTemperature)
-                .orElseThrow(() -> createMissingPostalCodeException(postalCode));
+    private double getBaseTemperatureOrThrow(TemperatureSnapshot snapshot, String postalCode) throws IllegalArgumentException {
+        double baseTemperature = snapshot.baseTemperature(TemperatureSnapshot.departmentIndex(postalCode));
+        if (Double.isNaN(baseTemperature)) {
+            throw createMissingPostalCodeException(normalizePostalPrefix(postalCode));
+        }
+        return baseTemperature;
     }
 
     /**
@@ -95,23 +125,21 @@ public class TemperatureService {
 
     /**
      * Get altitude offset for the given altitude in meters.
-     * Looks up the offset from the configured altitude offset ranges.
+     * Looks up the offset from the interval index of the configured altitude offset ranges.
      *
      * @param altitude altitude in meters
      * @return temperature offset in Celsius
      * @throws IllegalArgumentException if altitude exceeds maximum configured range
      */
-    private double getAltitudeOffsetForMeters(int altitude) throws IllegalArgumentException {
-        List<AltitudeOffsetRange> altitudeRanges = altitudeOffsetRangeRepository.findAllByOrderByFromMetersAsc();
-
-        if (altitudeRanges == null || altitudeRanges.isEmpty()) {
+    private double getAltitudeOffsetForMeters(AltitudeOffsetIndex offsets, int altitude) throws IllegalArgumentException {
+        if (offsets.isEmpty()) {
             log.debug(serviceMessages.getTemperature().getNoOffsets());
             return 0;
         }
 
-        validateAltitudeWithinMaxRange(altitude, altitudeRanges);
+        validateAltitudeWithinMaxRange(offsets, altitude);
 
-        return findAltitudeOffset(altitude, altitudeRanges);
+        return findAltitudeOffset(offsets, altitude);
     }
 
     /**
@@ -119,11 +147,8 @@ public class TemperatureService {
      *
      * @throws IllegalArgumentException if altitude exceeds maximum
      */
-    private void validateAltitudeWithinMaxRange(int altitude, List<AltitudeOffsetRange> altitudeRanges) {
-        int maxAltitude = altitudeRanges.stream()
-                .mapToInt(AltitudeOffsetRange::getToMeters)
-                .max()
-                .orElse(Integer.MAX_VALUE);
+    private void validateAltitudeWithinMaxRange(AltitudeOffsetIndex offsets, int altitude) {
+        int maxAltitude = offsets.maxAltitude();
 
         if (altitude > maxAltitude) {
             log.warn(serviceMessages.getTemperature().getAltitudeExceeds(), altitude, maxAltitude);
@@ -134,29 +159,21 @@ public class TemperatureService {
     }
 
     /**
-     * Find the temperature offset for a given altitude from the list of ranges.
+     * Find the temperature offset for a given altitude in the interval index.
      *
      * @return temperature offset or 0 if no matching range found
      */
-    private double findAltitudeOffset(int altitude, List<AltitudeOffsetRange> altitudeRanges) {
-        for (AltitudeOffsetRange altitudeRange : altitudeRanges) {
-            if (altitudeIsInRange(altitude, altitudeRange)) {
-                log.debug("Found offset {} for altitude {} in range [{}, {}]",
-                        altitudeRange.getOffset(), altitude,
-                        altitudeRange.getFromMeters(), altitudeRange.getToMeters());
-                return altitudeRange.getOffset();
-            }
+    private double findAltitudeOffset(AltitudeOffsetIndex offsets, int altitude) {
+        int interval = offsets.find(altitude);
+        if (interval < 0) {
+            log.debug("No matching altitude offset range for altitude {}, returning 0", altitude);
+            return 0;
         }
 
-        log.debug("No matching altitude offset range for altitude {}, returning 0", altitude);
-        return 0;
-    }
-
-    /**
-     * Check if altitude falls within the given range.
-     */
-    private boolean altitudeIsInRange(int altitude, AltitudeOffsetRange altitudeRange) {
-        return altitude >= altitudeRange.getFromMeters() &&
-               altitude <= altitudeRange.getToMeters();
+        if (log.isDebugEnabled()) {
+            log.debug("Found offset {} for altitude {} in range [{}, {}]",
+                    offsets.offset(interval), altitude, offsets.from(interval), offsets.to(interval));
+        }
+        return offsets.offset(interval);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,106 @@
+package com.oneday.service;
+
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.model.Coordinates;
+import com.oneday.util.Futures;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * {@link MapService} decorator recording a client span for each upstream call.
+ * Spans are children of the span current on the calling thread, so each upstream call
+ * shows up under the request that made it. Failed calls are marked with the kind of error,
+ * classified like the stage timers of {@link InstrumentedMapService}.
+ */
+public class TracingMapService extends MapServiceDecorator {
+
+    private final Tracer tracer;
+    private final String geocodeHost;
+    private final String elevationHost;
+
+    public TracingMapService(MapService delegate, Tracer tracer, String geocodeHost, String elevationHost,
+                             ErrorMessageProperties errorMessages) {
+        super(delegate, errorMessages);
+        this.tracer = tracer;
+        this.geocodeHost = geocodeHost;
+        this.elevationHost = elevationHost;
+    }
+
+    @Override
+    public Coordinates geocodeAddress(String address) throws IllegalArgumentException {
+        return call(startSpan("geocode", geocodeHost), () -> delegate.geocodeAddress(address));
+    }
+
+    @Override
+    public CompletableFuture<Coordinates> geocodeAddressAsync(String address) {
+        return callAsync(startSpan("geocode", geocodeHost), () -> delegate.geocodeAddressAsync(address));
+    }
+
+    @Override
+    public int getElevationMeters(Coordinates coordinates) throws IllegalArgumentException {
+        return call(startSpan("elevation", elevationHost), () -> delegate.getElevationMeters(coordinates));
+    }
+
+    @Override
+    public CompletableFuture<Integer> getElevationMetersAsync(Coordinates coordinates) {
+        return callAsync(startSpan("elevation", elevationHost), () -> delegate.getElevationMetersAsync(coordinates));
+    }
+
+    @Override
+    public int[] getElevationsMeters(List<Coordinates> coordinates) throws IllegalArgumentException {
+        Span span = startSpan("elevation", elevationHost);
+        span.setAttribute("locations", coordinates.size());
+        return call(span, () -> delegate.getElevationsMeters(coordinates));
+    }
+
+    private Span startSpan(String name, String host) {
+        return tracer.spanBuilder(name)
+            .setSpanKind(SpanKind.CLIENT)
+            .setAttribute("server.address", host)
+            .startSpan();
+    }
+
+    private <T> T call(Span span, Supplier<T> upstreamCall) {
+        try (Scope ignored = span.makeCurrent()) {
+            return upstreamCall.get();
+        } catch (RuntimeException e) {
+            recordError(span, e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    private <T> CompletableFuture<T> callAsync(Span span, Supplier<CompletableFuture<T>> upstreamCall) {
+        CompletableFuture<T> result;
+        try (Scope ignored = span.makeCurrent()) {
+            result = upstreamCall.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        return Futures.propagateCancellation(result.whenComplete((value, error) -> {
+            if (error != null) {
+                recordError(span, Futures.unwrap(error));
+            }
+            span.end();
+        }), result);
+    }
+
+    /**
+     * Mark a span as failed; "not found" results are tagged but are not errors.
+     */
+    private static void recordError(Span span, Throwable error) {
+        span.setAttribute("error.type", InstrumentedMapService.outcome(error));
+        if (!(error instanceof IllegalArgumentException)) {
+            span.recordException(error);
+            span.setStatus(StatusCode.ERROR);
+        }
+    }
+}
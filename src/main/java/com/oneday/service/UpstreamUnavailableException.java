@@ -0,0 +1,13 @@
+package com.oneday.service;
+
+/**
+ * Thrown when an upstream API is known to be unavailable and is not called at all,
+ * e.g. while its circuit breaker is open. Unlike other upstream failures it is not
+ * turned into a 0 altitude by {@link AbstractMapService}, so callers can report a degraded response.
+ */
+public class UpstreamUnavailableException extends RuntimeException {
+
+    public UpstreamUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,19 @@
+package com.oneday.util;
+
+import java.util.Locale;
+
+/**
+ * Helpers for working with free-text addresses.
+ */
+public final class Addresses {
+
+    private Addresses() {
+    }
+
+    /**
+     * Normalize an address for use as a lookup key: trimmed, single-spaced and lower case.
+     */
+    public static String normalize(String address) {
+        return address.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
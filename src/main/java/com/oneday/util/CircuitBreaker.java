@@ -0,0 +1,274 @@
+package com.oneday.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker.
+ * While CLOSED, the outcomes of the last calls are kept in a sliding window; once it holds at least
+ * the minimum number of calls and the failure rate or slow-call rate reaches its threshold, the breaker
+ * OPENs and rejects calls. After the open duration it lets a few probe calls through (HALF_OPEN):
+ * if their rates are below the thresholds it closes again, otherwise it re-opens.
+ * Each permission is tagged with the state it was granted in, and outcomes reported after the breaker
+ * has changed state since are ignored, so a slow call admitted while closed is not counted as a probe.
+ */
+public final class CircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoClock;
+    // A lock rather than a monitor, so virtual threads calling through the breaker do not pin their carrier
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Sliding window of outcomes: bit 0 failed, bit 1 slow
+    private final byte[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+    private int windowSlowCalls;
+
+    private State state = State.CLOSED;
+    // Incremented on every state change; permits carry the generation they were granted in
+    private long generation;
+    private long openedAtNanos;
+    private int probesPermitted;
+    private int probesCompleted;
+    private int probeFailures;
+    private int probeSlowCalls;
+    private long rejectedCalls;
+
+    /**
+     * @param name name used in logs and error messages, e.g. the upstream host
+     * @param windowSize number of most recent calls the rates are computed over
+     * @param minimumCalls calls needed in the window before the breaker can open
+     * @param failureRateThreshold failure rate in percent at which the breaker opens
+     * @param slowCallRateThreshold slow-call rate in percent at which the breaker opens
+     * @param slowCallDuration duration from which a call counts as slow
+     * @param openDuration time the breaker stays open before probing
+     * @param halfOpenCalls number of probe calls permitted while half-open
+     */
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                          double slowCallRateThreshold, Duration slowCallDuration, Duration openDuration,
+                          int halfOpenCalls) {
+        this(name, windowSize, minimumCalls, failureRateThreshold, slowCallRateThreshold, slowCallDuration,
+            openDuration, halfOpenCalls, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                   double slowCallRateThreshold, Duration slowCallDuration, Duration openDuration,
+                   int halfOpenCalls, LongSupplier nanoClock) {
+        this.name = name;
+        this.window = new byte[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = slowCallDuration.toNanos();
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Ask permission for a call. Callers granted permission must report its outcome with the returned
+     * permit to {@link #onSuccess} or {@link #onFailure}, or {@link #releasePermission} if it was abandoned.
+     *
+     * @return permit identifying the state the permission was granted in
+     * @throws CallNotPermittedException if the breaker is open, or half-open with all probes in flight
+     */
+    public long acquirePermission() {
+        lock.lock();
+        try {
+            if (state == State.OPEN && nanoClock.getAsLong() - openedAtNanos >= openNanos) {
+                transitionTo(State.HALF_OPEN);
+            }
+            if (state == State.CLOSED) {
+                return generation;
+            }
+            if (state == State.HALF_OPEN && probesPermitted < halfOpenCalls) {
+                probesPermitted++;
+                return generation;
+            }
+            rejectedCalls++;
+            throw new CallNotPermittedException("Circuit breaker for " + name + " is " + state);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Check that a call would be permitted now without taking a permit, e.g. before waiting for
+     * a rate limit token the call also needs. A call found not permitted counts as rejected.
+     *
+     * @throws CallNotPermittedException if the breaker is open, or half-open with all probes in flight
+     */
+    public void checkPermission() {
+        lock.lock();
+        try {
+            if (state == State.CLOSED
+                    || state == State.OPEN && nanoClock.getAsLong() - openedAtNanos >= openNanos
+                    || state == State.HALF_OPEN && probesPermitted < halfOpenCalls) {
+                return;
+            }
+            rejectedCalls++;
+            throw new CallNotPermittedException("Circuit breaker for " + name + " is " + state);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record a call that completed normally.
+     *
+     * @param permit permit returned by {@link #acquirePermission} for the call
+     * @param durationNanos call duration
+     */
+    public void onSuccess(long permit, long durationNanos) {
+        lock.lock();
+        try {
+            record(permit, false, durationNanos >= slowCallNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record a call that failed.
+     *
+     * @param permit permit returned by {@link #acquirePermission} for the call
+     * @param durationNanos call duration
+     */
+    public void onFailure(long permit, long durationNanos) {
+        lock.lock();
+        try {
+            record(permit, true, durationNanos >= slowCallNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Give back the permission of a call abandoned before its outcome was known, so a half-open
+     * breaker can let another probe through instead.
+     *
+     * @param permit permit returned by {@link #acquirePermission} for the call
+     */
+    public void releasePermission(long permit) {
+        lock.lock();
+        try {
+            if (permit == generation && state == State.HALF_OPEN && probesPermitted > probesCompleted) {
+                probesPermitted--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public State getState() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of calls rejected while open or half-open
+     */
+    public long rejectedCount() {
+        lock.lock();
+        try {
+            return rejectedCalls;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private void record(long permit, boolean failed, boolean slow) {
+        if (permit != generation) {
+            // Outcome of a call permitted before the last state change, e.g. admitted while closed
+            // and completing after the breaker opened or while it probes
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            probesCompleted++;
+            probeFailures += failed ? 1 : 0;
+            probeSlowCalls += slow ? 1 : 0;
+            if (probesCompleted >= halfOpenCalls) {
+                transitionTo(exceedsThresholds(probeFailures, probeSlowCalls, probesCompleted) ? State.OPEN : State.CLOSED);
+            }
+            return;
+        }
+
+        if (windowCount == window.length) {
+            byte evicted = window[windowIndex];
+            windowFailures -= evicted & 1;
+            windowSlowCalls -= (evicted >> 1) & 1;
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = (byte) ((failed ? 1 : 0) | (slow ? 2 : 0));
+        windowIndex = (windowIndex + 1) % window.length;
+        windowFailures += failed ? 1 : 0;
+        windowSlowCalls += slow ? 1 : 0;
+
+        if (windowCount >= minimumCalls && exceedsThresholds(windowFailures, windowSlowCalls, windowCount)) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private boolean exceedsThresholds(int failures, int slowCalls, int calls) {
+        return failures * 100.0 / calls >= failureRateThreshold || slowCalls * 100.0 / calls >= slowCallRateThreshold;
+    }
+
+    private void transitionTo(State newState) {
+        log.warn("Circuit breaker for {} changed from {} to {}", name, state, newState);
+        state = newState;
+        generation++;
+        switch (newState) {
+            case OPEN:
+                openedAtNanos = nanoClock.getAsLong();
+                break;
+            case HALF_OPEN:
+                probesPermitted = 0;
+                probesCompleted = 0;
+                probeFailures = 0;
+                probeSlowCalls = 0;
+                break;
+            case CLOSED:
+                windowIndex = 0;
+                windowCount = 0;
+                windowFailures = 0;
+                windowSlowCalls = 0;
+                break;
+        }
+    }
+
+    /**
+     * Thrown when a call is rejected because the breaker is open.
+     */
+    public static class CallNotPermittedException extends RuntimeException {
+        public CallNotPermittedException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.oneday.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link SpanExporter} appending finished spans to a file, one JSON object per line.
+ * Each line holds the trace and span IDs, the parent span ID, name, kind, start time,
+ * duration, status and attributes of a span.
+ */
+public class FileSpanExporter implements SpanExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(FileSpanExporter.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BufferedWriter writer;
+    // Held while writing to the file, which blocks; a monitor would pin a virtual thread exporting spans
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public FileSpanExporter(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        writeLock.lock();
+        try {
+            for (SpanData span : spans) {
+                writer.write(objectMapper.writeValueAsString(toJson(span)));
+                writer.newLine();
+            }
+            writer.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            log.warn("Failed to write {} spans: {}", spans.size(), e.getMessage());
+            return CompletableResultCode.ofFailure();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static Map<String, Object> toJson(SpanData span) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("traceId", span.getTraceId());
+        json.put("spanId", span.getSpanId());
+        if (span.getParentSpanContext().isValid()) {
+            json.put("parentSpanId", span.getParentSpanId());
+        }
+        json.put("name", span.getName());
+        json.put("kind", span.getKind().name());
+        json.put("startEpochNanos", span.getStartEpochNanos());
+        json.put("durationMicros", (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1000);
+        json.put("status", span.getStatus().getStatusCode().name());
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), value));
+        json.put("attributes", attributes);
+        return json;
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        writeLock.lock();
+        try {
+            writer.close();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
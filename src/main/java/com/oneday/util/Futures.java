@@ -0,0 +1,44 @@
+package com.oneday.util;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Helpers for working with {@link java.util.concurrent.CompletableFuture} results.
+ */
+public final class Futures {
+
+    private Futures() {
+    }
+
+    /**
+     * Unwrap the exception a future failed with from its CompletionException or ExecutionException wrapper.
+     */
+    public static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /**
+     * Cancel a source future when a future derived from it is cancelled. Cancelling the result of
+     * {@code thenApply} or {@code whenComplete} does not reach the source on its own, so without this
+     * cancelling a lookup would leave its HTTP exchange running.
+     *
+     * @return the derived future
+     */
+    public static <T> CompletableFuture<T> propagateCancellation(CompletableFuture<T> derived, Future<?> source) {
+        derived.whenComplete((value, error) -> {
+            if (error instanceof CancellationException) {
+                source.cancel(true);
+            }
+        });
+        return derived;
+    }
+}
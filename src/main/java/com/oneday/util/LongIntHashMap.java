@@ -0,0 +1,147 @@
+package com.oneday.util;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bounded, thread-safe primitive long to int map using open addressing with linear probing.
+ * Keys and values are stored in flat arrays, so lookups never box.
+ * Each key lives within a short probe window of its home slot; when that window is full,
+ * the entry in the home slot is overwritten, which makes the map behave like a lossy cache
+ * with a fixed memory footprint.
+ */
+public final class LongIntHashMap {
+
+    private static final long EMPTY_KEY = Long.MIN_VALUE;
+    private static final int MAX_PROBES = 8;
+
+    private final long[] keys;
+    private final int[] values;
+    private final int mask;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int size;
+    private long evictions;
+
+    /**
+     * @param capacity minimum number of slots; rounded up to a power of two
+     */
+    public LongIntHashMap(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        int slots = Integer.highestOneBit(Math.max(capacity, MAX_PROBES) - 1) << 1;
+        this.keys = new long[slots];
+        this.values = new int[slots];
+        this.mask = slots - 1;
+        Arrays.fill(keys, EMPTY_KEY);
+    }
+
+    /**
+     * Get the value stored for the key.
+     *
+     * @param key the key
+     * @param missingValue value returned if the key is absent
+     * @return the stored value or missingValue
+     */
+    public int get(long key, int missingValue) {
+        lock.readLock().lock();
+        try {
+            int slot = home(key);
+            for (int i = 0; i < MAX_PROBES; i++) {
+                int index = (slot + i) & mask;
+                if (keys[index] == key) {
+                    return values[index];
+                }
+                if (keys[index] == EMPTY_KEY) {
+                    return missingValue;
+                }
+            }
+            return missingValue;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Store the value for the key, evicting an existing entry if the probe window is full.
+     *
+     * @throws IllegalArgumentException if key is {@link Long#MIN_VALUE}, which is reserved
+     */
+    public void put(long key, int value) {
+        if (key == EMPTY_KEY) {
+            throw new IllegalArgumentException("Long.MIN_VALUE is reserved as the empty key");
+        }
+        lock.writeLock().lock();
+        try {
+            int slot = home(key);
+            for (int i = 0; i < MAX_PROBES; i++) {
+                int index = (slot + i) & mask;
+                if (keys[index] == key) {
+                    values[index] = value;
+                    return;
+                }
+                if (keys[index] == EMPTY_KEY) {
+                    keys[index] = key;
+                    values[index] = value;
+                    size++;
+                    return;
+                }
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            evictions++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            Arrays.fill(keys, EMPTY_KEY);
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of entries overwritten because their probe window was full.
+     */
+    public long evictions() {
+        lock.readLock().lock();
+        try {
+            return evictions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    private int home(long key) {
+        // murmur3 fmix64 to spread packed coordinate keys
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+}
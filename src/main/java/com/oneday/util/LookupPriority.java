@@ -0,0 +1,68 @@
+package com.oneday.util;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Priority of the upstream lookups made by the current thread.
+ * Interactive requests are served before batch traffic when upstream calls are rate limited.
+ * The priority is thread-local: work handed to another thread, such as a future's callback
+ * or an executor task, keeps it only when wrapped with {@link #wrap} or {@link #wrapFunction}.
+ */
+public enum LookupPriority {
+    INTERACTIVE,
+    BATCH;
+
+    private static final ThreadLocal<LookupPriority> CURRENT = ThreadLocal.withInitial(() -> INTERACTIVE);
+
+    /**
+     * @return priority of the current thread, INTERACTIVE unless running inside {@link #callAs}
+     */
+    public static LookupPriority current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Run the task with the given priority on the current thread.
+     */
+    public static <T> T callAs(LookupPriority priority, Supplier<T> task) {
+        LookupPriority previous = CURRENT.get();
+        CURRENT.set(priority);
+        try {
+            return task.get();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Run the task with the given priority on the current thread.
+     */
+    public static void runAs(LookupPriority priority, Runnable task) {
+        callAs(priority, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Wrap a task so it runs with this priority on whichever thread runs it.
+     */
+    public Runnable wrap(Runnable task) {
+        return () -> runAs(this, task);
+    }
+
+    /**
+     * Wrap a function, e.g. a future's callback, so it runs with this priority on whichever thread runs it.
+     */
+    public <T, R> Function<T, R> wrapFunction(Function<T, R> function) {
+        return value -> callAs(this, () -> function.apply(value));
+    }
+
+    /**
+     * @return the more urgent of two priorities
+     */
+    public static LookupPriority mostUrgent(LookupPriority a, LookupPriority b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+}
@@ -0,0 +1,119 @@
+package com.oneday.util;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into a single execution.
+ * The first caller for a key runs the loader; callers arriving while it is in flight
+ * wait for its result (up to a bounded time) and receive the same value or exception.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Run the loader for the key, or wait for the in-flight execution for the same key.
+     *
+     * @param key the key identifying identical calls
+     * @param loader the call to execute if none is in flight
+     * @param maxWait maximum time a waiting caller blocks for the in-flight result
+     * @return the loaded value
+     * @throws SingleFlightTimeoutException if the in-flight call does not finish within maxWait
+     */
+    public V execute(K key, Supplier<V> loader, Duration maxWait) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return await(existing, key, maxWait);
+        }
+
+        try {
+            V value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #execute}: start the loader for the key, or join the
+     * in-flight future for the same key. Joined futures fail with a TimeoutException
+     * if the in-flight call does not finish within maxWait.
+     *
+     * @param key the key identifying identical calls
+     * @param loader starts the call if none is in flight
+     * @param maxWait maximum time a joining caller waits for the in-flight result
+     * @return future value
+     */
+    public CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> loader, Duration maxWait) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return existing.copy().orTimeout(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        }
+
+        future.whenComplete((value, error) -> inFlight.remove(key, future));
+        try {
+            loader.get().whenComplete((value, error) -> {
+                if (error != null) {
+                    future.completeExceptionally(Futures.unwrap(error));
+                } else {
+                    future.complete(value);
+                }
+            });
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+        }
+        return future.copy();
+    }
+
+    /**
+     * Number of keys currently in flight.
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private V await(CompletableFuture<V> future, K key, Duration maxWait) {
+        try {
+            return future.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (TimeoutException | CancellationException e) {
+            throw new SingleFlightTimeoutException("Timed out waiting for in-flight call for key: " + key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SingleFlightTimeoutException("Interrupted waiting for in-flight call for key: " + key);
+        }
+    }
+
+    /**
+     * Thrown to a waiting caller when the in-flight call does not complete in time.
+     */
+    public static class SingleFlightTimeoutException extends RuntimeException {
+        public SingleFlightTimeoutException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.oneday.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token-bucket rate limiter with a bounded, prioritized wait queue.
+ * Tokens refill continuously at the configured rate up to the burst size. Callers that find
+ * no token wait in a queue ordered by {@link LookupPriority}, then arrival order, and are
+ * granted tokens as they refill. Waiters are rejected when the queue is full or when they
+ * have not been granted a token within the maximum wait.
+ * Closing the limiter stops its dispatcher thread and rejects the callers still waiting.
+ */
+public final class TokenBucketRateLimiter implements AutoCloseable {
+
+    private static final Comparator<Waiter> QUEUE_ORDER =
+        Comparator.comparing((Waiter waiter) -> waiter.priority).thenComparingLong(waiter -> waiter.sequence);
+
+    private final String name;
+    private final double permitsPerNano;
+    private final double burst;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private final ScheduledExecutorService dispatcher;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Waiter> queue = new PriorityQueue<>(QUEUE_ORDER);
+    private final LongAdder granted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+
+    private double tokens;
+    private long lastRefillNanos;
+    private long sequence;
+    private ScheduledFuture<?> scheduledDispatch;
+    private boolean closed;
+
+    /**
+     * @param name name used in thread names and error messages, e.g. the upstream host
+     * @param permitsPerSecond sustained rate
+     * @param burst maximum tokens accumulated while idle (at least 1)
+     * @param maxQueue maximum callers waiting for a token
+     * @param maxWait maximum time a caller waits for a token
+     */
+    public TokenBucketRateLimiter(String name, double permitsPerSecond, int burst, int maxQueue, Duration maxWait) {
+        this.name = name;
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = Math.max(1, burst);
+        this.maxQueue = maxQueue;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.tokens = this.burst;
+        this.lastRefillNanos = System.nanoTime();
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limiter-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Take a token, blocking until one is granted.
+     *
+     * @param priority priority of the caller in the wait queue
+     * @return time spent waiting, in nanoseconds
+     * @throws RateLimitExceededException if the queue is full or no token is granted within the maximum wait
+     */
+    public long acquire(LookupPriority priority) {
+        try {
+            return acquireAsync(priority).get();
+        } catch (ExecutionException e) {
+            throw (RuntimeException) e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RateLimitExceededException("Interrupted waiting for " + name + " rate limit");
+        }
+    }
+
+    /**
+     * Take a token without blocking the calling thread.
+     *
+     * @param priority priority of the caller in the wait queue
+     * @return future completing with the time spent waiting in nanoseconds once a token is granted, or failing
+     *         with RateLimitExceededException if the queue is full or no token is granted within the maximum wait
+     */
+    public CompletableFuture<Long> acquireAsync(LookupPriority priority) {
+        lock.lock();
+        try {
+            if (closed) {
+                rejected.increment();
+                return CompletableFuture.failedFuture(closedException());
+            }
+            long now = System.nanoTime();
+            refill(now);
+            if (queue.isEmpty() && tokens >= 1) {
+                tokens -= 1;
+                granted.increment();
+                return CompletableFuture.completedFuture(0L);
+            }
+            if (queue.size() >= maxQueue) {
+                rejected.increment();
+                return CompletableFuture.failedFuture(
+                    new RateLimitExceededException("Wait queue for " + name + " is full (" + maxQueue + ")"));
+            }
+            Waiter waiter = new Waiter(priority, sequence++, now);
+            queue.add(waiter);
+            scheduleDispatch(now);
+            return waiter.granted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Take a token only if one is available now and no caller is waiting for one,
+     * for optional calls that should rather be skipped than queued.
+     *
+     * @return true if a token was taken
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            refill(System.nanoTime());
+            if (queue.isEmpty() && tokens >= 1) {
+                tokens -= 1;
+                granted.increment();
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of callers waiting for a token
+     */
+    public int queueDepth() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of tokens granted
+     */
+    public long grantedCount() {
+        return granted.sum();
+    }
+
+    /**
+     * @return number of callers rejected because the queue was full or their wait timed out
+     */
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return total time granted callers spent waiting for a token, in nanoseconds
+     */
+    public double totalWaitNanos() {
+        return totalWaitNanos.sum();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Stop the dispatcher thread and reject the callers still waiting for a token.
+     */
+    @Override
+    public void close() {
+        List<Waiter> waiting;
+        lock.lock();
+        try {
+            closed = true;
+            waiting = new ArrayList<>(queue);
+            queue.clear();
+        } finally {
+            lock.unlock();
+        }
+        dispatcher.shutdownNow();
+        RateLimitExceededException error = closedException();
+        waiting.forEach(waiter -> waiter.granted.completeExceptionally(error));
+    }
+
+    private RateLimitExceededException closedException() {
+        return new RateLimitExceededException("Rate limiter for " + name + " is closed");
+    }
+
+    /**
+     * Grant refilled tokens to the head of the queue and reject expired waiters,
+     * then schedule the next dispatch while callers are still waiting.
+     */
+    private void dispatch() {
+        List<Runnable> completions = new ArrayList<>();
+        lock.lock();
+        try {
+            scheduledDispatch = null;
+            long now = System.nanoTime();
+            refill(now);
+
+            for (Iterator<Waiter> it = queue.iterator(); it.hasNext(); ) {
+                Waiter waiter = it.next();
+                if (now - waiter.enqueuedNanos >= maxWaitNanos) {
+                    it.remove();
+                    rejected.increment();
+                    completions.add(() -> waiter.granted.completeExceptionally(new RateLimitExceededException(
+                        "Timed out waiting for " + name + " rate limit")));
+                }
+            }
+            while (tokens >= 1 && !queue.isEmpty()) {
+                Waiter waiter = queue.poll();
+                tokens -= 1;
+                long waited = now - waiter.enqueuedNanos;
+                granted.increment();
+                totalWaitNanos.add(waited);
+                completions.add(() -> waiter.granted.complete(waited));
+            }
+
+            if (!queue.isEmpty()) {
+                scheduleDispatch(now);
+            }
+        } finally {
+            lock.unlock();
+        }
+        completions.forEach(Runnable::run);
+    }
+
+    /**
+     * Schedule a dispatch for when the next token refills or the oldest waiter expires, whichever is first.
+     * Must be called while holding the lock.
+     */
+    private void scheduleDispatch(long now) {
+        if (scheduledDispatch != null) {
+            return;
+        }
+        long untilToken = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / permitsPerNano);
+        long untilExpiry = Long.MAX_VALUE;
+        for (Waiter waiter : queue) {
+            untilExpiry = Math.min(untilExpiry, waiter.enqueuedNanos + maxWaitNanos - now);
+        }
+        long delay = Math.max(0, Math.min(untilToken, untilExpiry));
+        scheduledDispatch = dispatcher.schedule(this::dispatch, delay, TimeUnit.NANOSECONDS);
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) * permitsPerNano);
+        lastRefillNanos = now;
+    }
+
+    private static final class Waiter {
+        private final LookupPriority priority;
+        private final long sequence;
+        private final long enqueuedNanos;
+        private final CompletableFuture<Long> granted = new CompletableFuture<>();
+
+        Waiter(LookupPriority priority, long sequence, long enqueuedNanos) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+
+    /**
+     * Thrown when a caller is rejected because the wait queue is full or its wait timed out.
+     */
+    public static class RateLimitExceededException extends RuntimeException {
+        public RateLimitExceededException(String message) {
+            super(message);
+        }
+    }
+}
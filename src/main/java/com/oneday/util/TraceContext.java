@@ -0,0 +1,69 @@
+package com.oneday.util;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.context.Context;
+import org.slf4j.MDC;
+
+import java.util.Map;
+
+/**
+ * Helpers carrying the trace context across threads and into the logs.
+ * The trace and span IDs of the current request are kept in the logging MDC
+ * under {@value #TRACE_ID} and {@value #SPAN_ID}.
+ */
+public final class TraceContext {
+
+    public static final String TRACE_ID = "traceId";
+    public static final String SPAN_ID = "spanId";
+
+    private TraceContext() {
+    }
+
+    /**
+     * Wrap a task so it runs in the trace context and logging MDC of the calling thread.
+     */
+    public static Runnable wrap(Runnable task) {
+        Runnable withContext = Context.current().wrap(task);
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        if (mdc == null) {
+            return withContext;
+        }
+        return () -> {
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            MDC.setContextMap(mdc);
+            try {
+                withContext.run();
+            } finally {
+                if (previous == null) {
+                    MDC.clear();
+                } else {
+                    MDC.setContextMap(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * Put the IDs of a span in the logging MDC; spans of a disabled tracer have no IDs and are skipped.
+     */
+    public static void putInMdc(SpanContext span) {
+        if (span.isValid()) {
+            MDC.put(TRACE_ID, span.getTraceId());
+            MDC.put(SPAN_ID, span.getSpanId());
+        }
+    }
+
+    public static void removeFromMdc() {
+        MDC.remove(TRACE_ID);
+        MDC.remove(SPAN_ID);
+    }
+
+    /**
+     * @return trace ID of the current span, or null outside of a trace
+     */
+    public static String currentTraceId() {
+        SpanContext span = Span.current().getSpanContext();
+        return span.isValid() ? span.getTraceId() : null;
+    }
+}
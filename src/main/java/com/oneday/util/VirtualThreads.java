@@ -0,0 +1,59 @@
+package com.oneday.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to virtual threads (Java 21+) from code compiled for Java 17.
+ * The JDK API is looked up reflectively, so the application still runs on Java 17,
+ * where {@link #isSupported()} returns false.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Whether the running JVM supports virtual threads.
+     */
+    public static boolean isSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Create a factory of virtual threads named prefix0, prefix1, ...
+     *
+     * @throws UnsupportedOperationException if the JVM does not support virtual threads
+     */
+    public static ThreadFactory factory(String namePrefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or later", e);
+        }
+    }
+
+    /**
+     * Create an executor starting a new virtual thread for each task.
+     *
+     * @throws UnsupportedOperationException if the JVM does not support virtual threads
+     */
+    public static ExecutorService newThreadPerTaskExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or later", e);
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.oneday.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oneday.model.PostalCentroid;
 import com.oneday.model.PostalTemperature;
+import com.oneday.repository.PostalCentroidRepository;
 import com.oneday.repository.PostalTemperatureRepository;
 import com.oneday.service.MapOsmService;
+import com.oneday.service.TemperatureLookupTables;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,15 +18,32 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@SpringBootTest
+// Several tests mock different elevations for the same coordinates, and call upstreams faster than their rate limits
+@SpringBootTest(properties = {"app.cache.elevation.enabled=false", "app.rate-limit.enabled=false"})
 @AutoConfigureMockMvc
 public class AddressControllerIntegrationTest {
 
@@ -31,9 +53,21 @@ public class AddressControllerIntegrationTest {
     @MockBean
     private RestTemplate restTemplate;
 
+    @MockBean
+    private HttpClient asyncHttpClient;
+
     @Autowired
     private PostalTemperatureRepository repository;
 
+    @Autowired
+    private PostalCentroidRepository centroidRepository;
+
+    @Autowired
+    private TemperatureLookupTables lookupTables;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @BeforeEach
     void setup() {
         repository.deleteAll();
@@ -41,6 +75,9 @@ public class AddressControllerIntegrationTest {
         repository.save(new PostalTemperature("75", -5.0)); // Paris
         repository.save(new PostalTemperature("38", -10.0)); // Grenoble
         repository.save(new PostalTemperature("13", -5.0)); // Marseille
+        centroidRepository.deleteAll();
+        centroidRepository.save(new PostalCentroid("38000", 212)); // Grenoble
+        lookupTables.refresh();
     }
 
     @Test
@@ -70,6 +107,16 @@ public class AddressControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.altitude").value(100))
                 .andExpect(jsonPath("$.standardMinTemperature").value(-5.0));
+
+        // Altitude is resolved once per request
+        verify(restTemplate, times(1)).exchange(
+                contains("nominatim.openstreetmap.org"),
+                eq(HttpMethod.GET),
+                any(),
+                eq(MapOsmService.NominatimResult[].class));
+        verify(restTemplate, times(1)).getForObject(
+                contains("api.open-elevation.com"),
+                eq(MapOsmService.ElevationResponse.class));
     }
 
     @Test
@@ -216,6 +263,300 @@ public class AddressControllerIntegrationTest {
                 .andExpect(jsonPath("$.altitude").value(50));
     }
 
+    @Test
+    void testGetAltitudeAndTemperature_PostalPrecision_UsesCentroidWithoutRemoteCalls() throws Exception {
+        String requestBody = "{\"postalCode\":\"38000\",\"precision\":\"POSTAL\"}";
+
+        mockMvc.perform(post("/api/v1/altitude-temp")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.altitude").value(212))
+                .andExpect(jsonPath("$.standardMinTemperature").value(-11.0));
+
+        verify(restTemplate, never()).exchange(anyString(), any(HttpMethod.class), any(), eq(MapOsmService.NominatimResult[].class));
+        verify(restTemplate, never()).getForObject(anyString(), eq(MapOsmService.ElevationResponse.class));
+    }
+
+    @Test
+    void testGetAltitudeAndTemperature_PostalPrecisionUnknownPostalCode_BadRequest() throws Exception {
+        String requestBody = "{\"postalCode\":\"38999\",\"precision\":\"POSTAL\"}";
+
+        mockMvc.perform(post("/api/v1/altitude-temp")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Postal Code not found in centroid elevation data."));
+    }
+
+    @Test
+    void testGetAltitudeAndTemperature_PostalPrecisionWithoutCentroidData_ResolvesFromAddress() throws Exception {
+        centroidRepository.deleteAll();
+        lookupTables.refresh();
+        MapOsmService.NominatimResult[] nominatimResults = new MapOsmService.NominatimResult[1];
+        nominatimResults[0] = createNominatimResult("45.19", "5.72");
+        when(restTemplate.exchange(
+                contains("nominatim.openstreetmap.org"),
+                eq(HttpMethod.GET),
+                any(),
+                eq(MapOsmService.NominatimResult[].class)
+        )).thenReturn(ResponseEntity.ok(nominatimResults));
+        when(restTemplate.getForObject(
+                contains("api.open-elevation.com"),
+                eq(MapOsmService.ElevationResponse.class)
+        )).thenReturn(createElevationResponse(250.0));
+
+        mockMvc.perform(post("/api/v1/altitude-temp")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"address\":\"Postal fallback Grenoble\",\"postalCode\":\"38000\",\"precision\":\"POSTAL\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.altitude").value(250));
+    }
+
+    @Test
+    void testGetAltitudeAndTemperatureBatch_PostalPrecisionWithoutCentroidData_LooksUpEachAddress() throws Exception {
+        centroidRepository.deleteAll();
+        lookupTables.refresh();
+        MapOsmService.NominatimResult[] north = {createNominatimResult("45.19", "5.72")};
+        MapOsmService.NominatimResult[] south = {createNominatimResult("44.9", "5.3")};
+        when(restTemplate.exchange(contains("PostalBatchNorth"), eq(HttpMethod.GET), any(),
+                eq(MapOsmService.NominatimResult[].class))).thenReturn(ResponseEntity.ok(north));
+        when(restTemplate.exchange(contains("PostalBatchSouth"), eq(HttpMethod.GET), any(),
+                eq(MapOsmService.NominatimResult[].class))).thenReturn(ResponseEntity.ok(south));
+        when(restTemplate.getForObject(contains("locations=45.19,5.72"), eq(MapOsmService.ElevationResponse.class)))
+                .thenReturn(createElevationResponse(250.0));
+        when(restTemplate.getForObject(contains("locations=44.9,5.3"), eq(MapOsmService.ElevationResponse.class)))
+                .thenReturn(createElevationResponse(700.0));
+
+        String requestBody = "["
+                + "{\"address\":\"PostalBatchNorth\",\"postalCode\":\"38000\",\"precision\":\"POSTAL\"},"
+                + "{\"address\":\"PostalBatchSouth\",\"postalCode\":\"38000\",\"precision\":\"POSTAL\"}"
+                + "]";
+
+        mockMvc.perform(post("/api/v1/altitude-temp/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].altitude").value(250))
+                .andExpect(jsonPath("$[1].altitude").value(700));
+
+        verify(restTemplate, times(2)).exchange(
+                contains("nominatim.openstreetmap.org"),
+                eq(HttpMethod.GET),
+                any(),
+                eq(MapOsmService.NominatimResult[].class));
+    }
+
+    @Test
+    void testGetAltitudeAndTemperature_PostalPrecisionWithoutCentroidDataOrAddress_BadRequest() throws Exception {
+        centroidRepository.deleteAll();
+        lookupTables.refresh();
+
+        mockMvc.perform(post("/api/v1/altitude-temp")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"postalCode\":\"38000\",\"precision\":\"POSTAL\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("POSTAL precision is unavailable")));
+    }
+
+    @Test
+    void testGetAltitudeAndTemperature_Error_ReportsCallerTraceId() throws Exception {
+        String requestBody = "{\"postalCode\":\"38999\",\"precision\":\"POSTAL\"}";
+
+        mockMvc.perform(post("/api/v1/altitude-temp")
+                .header("traceparent", "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.traceId").value("4bf92f3577b34da6a3ce929d0e0e4736"));
+    }
+
+    @Test
+    void testGetAltitudeAndTemperature_AddressPrecisionWithoutAddress_BadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/altitude-temp")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"postalCode\":\"38000\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("address or postalCode must be provided"));
+    }
+
+    @Test
+    void testGetAltitudeAndTemperature_WithCoordinates_SkipsGeocoding() throws Exception {
+        when(restTemplate.getForObject(
+                contains("api.open-elevation.com/api/v1/lookup?locations=45.19,5.72"),
+                eq(MapOsmService.ElevationResponse.class)
+        )).thenReturn(createElevationResponse(250.0));
+
+        String requestBody = "{\"lat\":45.19,\"lon\":5.72,\"postalCode\":\"38000\"}";
+
+        mockMvc.perform(post("/api/v1/altitude-temp")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.altitude").value(250))
+                .andExpect(jsonPath("$.standardMinTemperature").value(-11.0));
+
+        verify(restTemplate, never()).exchange(anyString(), any(HttpMethod.class), any(), eq(MapOsmService.NominatimResult[].class));
+    }
+
+    @Test
+    void testGetAltitudeAndTemperature_LatWithoutLon_BadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/altitude-temp")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"address\":\"Grenoble\",\"lat\":45.19,\"postalCode\":\"38000\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("lat and lon must be provided together"));
+    }
+
+    @Test
+    void testGetAltitudeAndTemperature_LatOutOfRange_BadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/altitude-temp")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"lat\":95.0,\"lon\":5.72,\"postalCode\":\"38000\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("lat must be between -90 and 90"));
+    }
+
+    @Test
+    void testGetAltitudeAndTemperatureBatch_MixedItems_ReportsPerItemResults() throws Exception {
+        MapOsmService.NominatimResult[] nominatimResults = new MapOsmService.NominatimResult[1];
+        nominatimResults[0] = createNominatimResult("45.19", "5.72");
+
+        when(restTemplate.exchange(
+                contains("nominatim.openstreetmap.org"),
+                eq(HttpMethod.GET),
+                any(),
+                eq(MapOsmService.NominatimResult[].class)
+        )).thenReturn(ResponseEntity.ok(nominatimResults));
+
+        when(restTemplate.getForObject(
+                contains("api.open-elevation.com"),
+                eq(MapOsmService.ElevationResponse.class)
+        )).thenReturn(createElevationResponse(250.0));
+
+        String requestBody = "["
+                + "{\"address\":\"Batch Grenoble\",\"postalCode\":\"38\"},"
+                + "{\"address\":\"  batch   grenoble \",\"postalCode\":\"38\"},"
+                + "{\"address\":\"\",\"postalCode\":\"38\"},"
+                + "{\"address\":\"Batch Grenoble\",\"postalCode\":\"99\"}"
+                + "]";
+
+        mockMvc.perform(post("/api/v1/altitude-temp/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].altitude").value(250))
+                .andExpect(jsonPath("$[0].standardMinTemperature").value(-11.0))
+                .andExpect(jsonPath("$[1].altitude").value(250))
+                .andExpect(jsonPath("$[2].error.error").value("address or postalCode must be provided"))
+                .andExpect(jsonPath("$[3].error.error").value(containsString("Postal Code")));
+
+        // Duplicate items within the batch are geocoded once
+        verify(restTemplate, times(1)).exchange(
+                contains("nominatim.openstreetmap.org"),
+                eq(HttpMethod.GET),
+                any(),
+                eq(MapOsmService.NominatimResult[].class));
+    }
+
+    @Test
+    void testGetAltitudeAndTemperatureBatch_EmptyBatch_BadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/altitude-temp/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Batch must contain between 1 and 1000 requests"));
+    }
+
+    @Test
+    void testGetAltitudeAndTemperatureStream_MixedItems_WritesOneLinePerItem() throws Exception {
+        String requestBody = "{\"postalCode\":\"38000\",\"precision\":\"POSTAL\"}\n"
+                + "{\"address\":\"\",\"postalCode\":\"38\"}\n"
+                + "\n"
+                + "{\"postalCode\":\"38999\",\"precision\":\"POSTAL\"}\n";
+
+        String responseBody = mockMvc.perform(post("/api/v1/altitude-temp/stream")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        // Lines are written in completion order
+        Map<Integer, JsonNode> lines = readLinesByIndex(responseBody);
+        assertEquals(3, lines.size());
+        assertEquals(212, lines.get(0).get("altitude").asInt());
+        assertEquals(-11.0, lines.get(0).get("standardMinTemperature").asDouble());
+        assertEquals("address or postalCode must be provided", lines.get(1).at("/error/error").asText());
+        assertEquals("Postal Code not found in centroid elevation data.", lines.get(2).at("/error/error").asText());
+        verify(restTemplate, never()).exchange(anyString(), any(HttpMethod.class), any(), eq(MapOsmService.NominatimResult[].class));
+    }
+
+    @Test
+    void testGetAltitudeAndTemperatureStream_MalformedLine_WritesItemsReadThenError() throws Exception {
+        StringBuilder requestBody = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            requestBody.append("{\"postalCode\":\"38000\",\"precision\":\"POSTAL\"}\n");
+        }
+        requestBody.append("{\"postalCode\":\n");
+
+        String responseBody = mockMvc.perform(post("/api/v1/altitude-temp/stream")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(requestBody.toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        Map<Integer, JsonNode> lines = readLinesByIndex(responseBody);
+        assertEquals(41, lines.size());
+        assertEquals(212, lines.get(39).get("altitude").asInt());
+        assertEquals("Malformed NDJSON input at line 42", lines.get(40).at("/error/error").asText());
+    }
+
+    @Test
+    void testGetAltitudeAndTemperatureAsync_HappyPath_Success() throws Exception {
+        when(asyncHttpClient.sendAsync(any(HttpRequest.class), any())).thenAnswer(invocation -> {
+            HttpRequest request = invocation.getArgument(0);
+            String body = request.uri().getHost().contains("nominatim")
+                    ? "[{\"lat\":\"45.77\",\"lon\":\"4.83\"}]"
+                    : "{\"results\":[{\"elevation\":420.0}]}";
+            return CompletableFuture.completedFuture(createHttpResponse(200, body));
+        });
+
+        String requestBody = "{\"address\":\"Async Lyon\",\"postalCode\":\"38\"}";
+
+        MvcResult result = mockMvc.perform(post("/api/v1/altitude-temp/async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.altitude").value(420))
+                .andExpect(jsonPath("$.standardMinTemperature").value(-12.0)); // -10.0 + (-2)
+    }
+
+    @Test
+    void testGetAltitudeAndTemperatureAsync_UpstreamError_FallsBackToZeroAltitude() throws Exception {
+        when(asyncHttpClient.sendAsync(any(HttpRequest.class), any()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(createHttpResponse(503, "")));
+
+        String requestBody = "{\"address\":\"Async unavailable\",\"postalCode\":\"75\"}";
+
+        MvcResult result = mockMvc.perform(post("/api/v1/altitude-temp/async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.altitude").value(0))
+                .andExpect(jsonPath("$.standardMinTemperature").value(-3.0));
+    }
+
     // Helper methods to create mock objects
     private MapOsmService.NominatimResult createNominatimResult(String lat, String lon) {
         MapOsmService.NominatimResult result = new MapOsmService.NominatimResult();
@@ -231,4 +572,21 @@ public class AddressControllerIntegrationTest {
         response.setResults(new MapOsmService.ElevationResult[]{result});
         return response;
     }
+
+    @SuppressWarnings("unchecked")
+    private HttpResponse<byte[]> createHttpResponse(int status, String body) {
+        HttpResponse<byte[]> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(status);
+        when(response.body()).thenReturn(body.getBytes(StandardCharsets.UTF_8));
+        return response;
+    }
+
+    private Map<Integer, JsonNode> readLinesByIndex(String ndjson) throws Exception {
+        Map<Integer, JsonNode> lines = new HashMap<>();
+        for (String line : ndjson.split("\n")) {
+            JsonNode node = objectMapper.readTree(line);
+            assertNull(lines.put(node.get("index").asInt(), node), "Duplicate line for index " + node.get("index"));
+        }
+        return lines;
+    }
 }
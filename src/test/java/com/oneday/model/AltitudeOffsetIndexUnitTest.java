@@ -0,0 +1,68 @@
+package com.oneday.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AltitudeOffsetIndexUnitTest {
+
+    @Test
+    void testFind_SharedBoundary_FirstRangeWins() {
+        // Same layout as datasets/offsets.json: 0 belongs to both of the first two ranges
+        AltitudeOffsetIndex index = AltitudeOffsetIndex.of(Arrays.asList(
+                new AltitudeOffsetRange(-10000, 0, 2),
+                new AltitudeOffsetRange(0, 199, 0),
+                new AltitudeOffsetRange(200, 399, -1)));
+
+        assertEquals(2.0, index.offset(index.find(0)));
+        assertEquals(0.0, index.offset(index.find(1)));
+        assertEquals(-1.0, index.offset(index.find(399)));
+        assertEquals(-1, index.find(400));
+        assertEquals(-1, index.find(-10001));
+        assertEquals(399, index.maxAltitude());
+        assertEquals(1, index.validationWarnings().size());
+    }
+
+    @Test
+    void testFind_ContainedRange_IsShadowedByEarlierRange() {
+        AltitudeOffsetIndex index = AltitudeOffsetIndex.of(Arrays.asList(
+                new AltitudeOffsetRange(0, 1000, -1),
+                new AltitudeOffsetRange(100, 200, -5)));
+
+        assertEquals(-1.0, index.offset(index.find(150)));
+    }
+
+    @Test
+    void testOf_Gap_ReportedAndNotMatched() {
+        AltitudeOffsetIndex index = AltitudeOffsetIndex.of(Arrays.asList(
+                new AltitudeOffsetRange(0, 199, 0),
+                new AltitudeOffsetRange(300, 399, -1)));
+
+        assertEquals(-1, index.find(250));
+        assertTrue(index.validationWarnings().get(0).contains("Gap between 200 and 299"));
+    }
+
+    @Test
+    void testFind_ThousandsOfBands_MatchesLinearScan() {
+        List<AltitudeOffsetRange> ranges = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            ranges.add(new AltitudeOffsetRange(i * 2, i * 2 + 1, -i));
+        }
+        AltitudeOffsetIndex index = AltitudeOffsetIndex.of(ranges);
+
+        for (int altitude = 0; altitude < 10000; altitude += 7) {
+            assertEquals(-(altitude / 2), index.offset(index.find(altitude)));
+        }
+        assertTrue(index.validationWarnings().isEmpty());
+    }
+
+    @Test
+    void testOf_InvertedRange_ThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> AltitudeOffsetIndex.of(List.of(new AltitudeOffsetRange(200, 100, -1))));
+    }
+}
@@ -0,0 +1,96 @@
+package com.oneday.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GazetteerUnitTest {
+
+    private static final String CSV = String.join("\n",
+        "name,latitude,longitude",
+        "# communes",
+        "Paris,48.8566,2.3522",
+        "Saint-Étienne,45.4397,4.3872",
+        "Paris 75001,48.8626,2.3363",
+        "Lyon,45.7640,4.8357",
+        "Grenoble,45.1885,5.7245",
+        "Saint-Denis 93200,48.9362,2.3574",
+        "Saint-Denis 97400,-20.8823,55.4504",
+        "");
+
+    @Test
+    void testFind_AddressNamingPlace_ReturnsPlace() throws IOException {
+        // Arrange
+        Gazetteer gazetteer = Gazetteer.load(new StringReader(CSV));
+
+        // Act
+        Coordinates coordinates = gazetteer.find("42000 SAINT ETIENNE, France");
+
+        // Assert
+        assertEquals(new Coordinates(45.4397, 4.3872), coordinates);
+        assertEquals(7, gazetteer.size());
+    }
+
+    @Test
+    void testFind_SeveralMatches_MostSpecificWins() throws IOException {
+        Gazetteer gazetteer = Gazetteer.load(new StringReader(CSV));
+
+        assertEquals(new Coordinates(48.8626, 2.3363), gazetteer.find("75001 Paris"));
+        assertEquals(new Coordinates(48.8566, 2.3522), gazetteer.find("Paris"));
+    }
+
+    @Test
+    void testFind_PartialNameMatch_ReturnsNull() throws IOException {
+        Gazetteer gazetteer = Gazetteer.load(new StringReader(CSV));
+
+        assertNull(gazetteer.find("Saint-Malo"));
+    }
+
+    @Test
+    void testFind_StreetAddressInPlace_ReturnsNull() throws IOException {
+        Gazetteer gazetteer = Gazetteer.load(new StringReader(CSV));
+
+        assertNull(gazetteer.find("12 Rue X, 38000 Grenoble"));
+        assertNull(gazetteer.find("Avenue de Paris, Lyon"));
+        assertNull(gazetteer.find("12 rue de Lyon, 38000 Grenoble"));
+        assertNull(gazetteer.find("Place de Grenoble, Paris, France"));
+        assertNull(gazetteer.find("Grenoble, Isère"));
+    }
+
+    @Test
+    void testFind_StreetNamedAfterCityWithoutLocality_ReturnsNull() throws IOException {
+        Gazetteer gazetteer = Gazetteer.load(new StringReader(CSV));
+
+        assertNull(gazetteer.find("Avenue de Paris"));
+        assertNull(gazetteer.find("Avenue de Paris Lyon"));
+    }
+
+    @Test
+    void testFind_PostalCodeDisagrees_DoesNotMatchThatPlace() throws IOException {
+        Gazetteer gazetteer = Gazetteer.load(new StringReader(CSV));
+
+        assertEquals(new Coordinates(48.9362, 2.3574), gazetteer.find("93200 Saint-Denis"));
+        assertEquals(new Coordinates(-20.8823, 55.4504), gazetteer.find("Saint-Denis, 97400"));
+        assertEquals(new Coordinates(48.8566, 2.3522), gazetteer.find("75004 Paris"));
+    }
+
+    @Test
+    void testFind_NamesakesWithoutPostalCode_ReturnsNull() throws IOException {
+        Gazetteer gazetteer = Gazetteer.load(new StringReader(CSV));
+        Gazetteer namesakes = Gazetteer.of(List.of("Valence", "Valence"),
+            List.of(new Coordinates(44.9334, 4.8924), new Coordinates(44.1120, 0.8910)));
+
+        assertNull(gazetteer.find("Saint-Denis"));
+        assertNull(namesakes.find("Valence"));
+    }
+
+    @Test
+    void testLoad_MalformedLine_Throws() {
+        assertThrows(IllegalArgumentException.class,
+            () -> Gazetteer.load(new StringReader("Paris,north,2.3522")));
+    }
+}
@@ -0,0 +1,186 @@
+package com.oneday.service;
+
+import com.oneday.config.ElevationBatchProperties;
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.model.Coordinates;
+import com.oneday.util.LookupPriority;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BatchingElevationMapServiceUnitTest {
+
+    @Mock
+    private MapService delegate;
+
+    @Test
+    void testSubmit_WithinWindow_SendsOneBatchAndMatchesResults() throws Exception {
+        BatchingElevationMapService service = createService(10, Duration.ofMillis(50));
+        when(delegate.getElevationsMeters(anyList())).thenReturn(new int[]{35, 212, 1040});
+
+        CompletableFuture<Integer> paris = service.submit(new Coordinates(48.8566, 2.3522));
+        CompletableFuture<Integer> grenoble = service.submit(new Coordinates(45.1885, 5.7245));
+        CompletableFuture<Integer> chamonix = service.submit(new Coordinates(45.9237, 6.8694));
+
+        assertEquals(35, paris.get(5, TimeUnit.SECONDS));
+        assertEquals(212, grenoble.get(5, TimeUnit.SECONDS));
+        assertEquals(1040, chamonix.get(5, TimeUnit.SECONDS));
+        verify(delegate, times(1)).getElevationsMeters(List.of(
+                new Coordinates(48.8566, 2.3522),
+                new Coordinates(45.1885, 5.7245),
+                new Coordinates(45.9237, 6.8694)));
+    }
+
+    @Test
+    void testSubmit_BatchFull_SendsWithoutWaitingForWindow() throws Exception {
+        BatchingElevationMapService service = createService(2, Duration.ofHours(1));
+        when(delegate.getElevationsMeters(anyList())).thenReturn(new int[]{35, 212});
+
+        CompletableFuture<Integer> first = service.submit(new Coordinates(48.8566, 2.3522));
+        CompletableFuture<Integer> second = service.submit(new Coordinates(45.1885, 5.7245));
+
+        assertEquals(35, first.get(5, TimeUnit.SECONDS));
+        assertEquals(212, second.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testGetElevationMeters_BatchFails_PropagatesToEveryCaller() {
+        BatchingElevationMapService service = createService(2, Duration.ofHours(1));
+        when(delegate.getElevationsMeters(anyList())).thenThrow(new IllegalArgumentException("Elevation data not found"));
+        when(delegate.getElevationMeters(any())).thenThrow(new IllegalArgumentException("Elevation data not found"));
+
+        CompletableFuture<Integer> first = service.submit(new Coordinates(48.8566, 2.3522));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getElevationMeters(new Coordinates(45.1885, 5.7245)));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+    }
+
+    @Test
+    void testSubmit_OneCoordinateRejected_RetriesItemsOneByOne() throws Exception {
+        BatchingElevationMapService service = createService(2, Duration.ofHours(1));
+        Coordinates paris = new Coordinates(48.8566, 2.3522);
+        Coordinates offMap = new Coordinates(89.9999, 0.0);
+        when(delegate.getElevationsMeters(anyList())).thenThrow(HttpClientErrorException.create(
+                HttpStatus.BAD_REQUEST, "Bad Request", HttpHeaders.EMPTY, new byte[0], null));
+        when(delegate.getElevationMeters(paris)).thenReturn(35);
+        when(delegate.getElevationMeters(offMap)).thenThrow(new IllegalArgumentException("Elevation data not found"));
+
+        CompletableFuture<Integer> first = service.submit(paris);
+        CompletableFuture<Integer> second = service.submit(offMap);
+
+        assertEquals(35, first.get(5, TimeUnit.SECONDS));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+    }
+
+    @Test
+    void testSubmit_UpstreamUnavailable_FailsBatchWithoutRetrying() {
+        BatchingElevationMapService service = createService(2, Duration.ofHours(1));
+        when(delegate.getElevationsMeters(anyList())).thenThrow(new ResourceAccessException("Connection refused"));
+
+        CompletableFuture<Integer> first = service.submit(new Coordinates(48.8566, 2.3522));
+        CompletableFuture<Integer> second = service.submit(new Coordinates(45.1885, 5.7245));
+
+        assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        verify(delegate, never()).getElevationMeters(any());
+    }
+
+    @Test
+    void testSubmit_SlowBatchInFlight_NextWindowIsSentWithoutWaiting() throws Exception {
+        BatchingElevationMapService service = createService(10, Duration.ofMillis(10));
+        CountDownLatch release = new CountDownLatch(1);
+        Coordinates slow = new Coordinates(48.8566, 2.3522);
+        when(delegate.getElevationsMeters(anyList())).thenAnswer(invocation -> {
+            if (invocation.<List<Coordinates>>getArgument(0).contains(slow)) {
+                release.await(5, TimeUnit.SECONDS);
+                return new int[]{35};
+            }
+            return new int[]{212};
+        });
+
+        CompletableFuture<Integer> first = service.submit(slow);
+        verify(delegate, timeout(5000)).getElevationsMeters(List.of(slow));
+        CompletableFuture<Integer> second = service.submit(new Coordinates(45.1885, 5.7245));
+
+        assertEquals(212, second.get(5, TimeUnit.SECONDS));
+        assertFalse(first.isDone());
+        release.countDown();
+        assertEquals(35, first.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testClose_PendingBatch_FailsInsteadOfHanging() {
+        BatchingElevationMapService service = createService(2, Duration.ofHours(1));
+        service.close();
+
+        CompletableFuture<Integer> first = service.submit(new Coordinates(48.8566, 2.3522));
+        CompletableFuture<Integer> second = service.submit(new Coordinates(45.1885, 5.7245));
+
+        assertTrue(first.isCompletedExceptionally());
+        assertTrue(second.isCompletedExceptionally());
+    }
+
+    @Test
+    void testSubmit_BatchPriorityLookups_SentAtBatchPriority() throws Exception {
+        BatchingElevationMapService service = createService(2, Duration.ofHours(1));
+        List<LookupPriority> sentAs = new CopyOnWriteArrayList<>();
+        when(delegate.getElevationsMeters(anyList())).thenAnswer(invocation -> {
+            sentAs.add(LookupPriority.current());
+            return new int[]{35, 212};
+        });
+
+        LookupPriority.callAs(LookupPriority.BATCH, () -> service.submit(new Coordinates(48.8566, 2.3522)));
+        LookupPriority.callAs(LookupPriority.BATCH, () -> service.submit(new Coordinates(45.1885, 5.7245)))
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(LookupPriority.BATCH), sentAs);
+    }
+
+    @Test
+    void testSubmit_MixedPriorityLookups_SentAtInteractivePriority() throws Exception {
+        BatchingElevationMapService service = createService(2, Duration.ofHours(1));
+        List<LookupPriority> sentAs = new CopyOnWriteArrayList<>();
+        when(delegate.getElevationsMeters(anyList())).thenAnswer(invocation -> {
+            sentAs.add(LookupPriority.current());
+            return new int[]{35, 212};
+        });
+
+        LookupPriority.callAs(LookupPriority.BATCH, () -> service.submit(new Coordinates(48.8566, 2.3522)));
+        service.submit(new Coordinates(45.1885, 5.7245)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(LookupPriority.INTERACTIVE), sentAs);
+    }
+
+    private BatchingElevationMapService createService(int maxSize, Duration window) {
+        ElevationBatchProperties properties = new ElevationBatchProperties();
+        properties.setMaxSize(maxSize);
+        properties.setWindow(window);
+        return new BatchingElevationMapService(delegate, properties, new ErrorMessageProperties());
+    }
+}
@@ -0,0 +1,144 @@
+package com.oneday.service;
+
+import com.oneday.config.CacheProperties;
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.model.Coordinates;
+import com.oneday.util.LookupPriority;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CachingGeocodeMapServiceUnitTest {
+
+    @Mock
+    private MapService delegate;
+
+    private final AtomicLong ticker = new AtomicLong();
+
+    private CachingGeocodeMapService service;
+
+    @BeforeEach
+    void setup() {
+        service = new CachingGeocodeMapService(delegate, delegate, new CacheProperties.Geocode(), Runnable::run,
+            new ErrorMessageProperties(), ticker::get);
+    }
+
+    @Test
+    void testGeocodeAddress_RepeatedLookup_CallsDelegateOnce() {
+        when(delegate.geocodeAddress(anyString())).thenReturn(new Coordinates(48.8566, 2.3522));
+
+        Coordinates first = service.geocodeAddress("Paris, France");
+        Coordinates second = service.geocodeAddress("  paris,   FRANCE ");
+
+        assertEquals(first, second);
+        verify(delegate, times(1)).geocodeAddress(anyString());
+        assertEquals(1, service.stats().hitCount());
+        assertEquals(1, service.stats().missCount());
+    }
+
+    @Test
+    void testGeocodeAddress_NotFound_IsCachedAndRethrown() {
+        when(delegate.geocodeAddress(anyString())).thenThrow(new IllegalArgumentException("Address not found: xyz"));
+
+        assertThrows(IllegalArgumentException.class, () -> service.geocodeAddress("xyz"));
+        assertThrows(IllegalArgumentException.class, () -> service.geocodeAddress("xyz"));
+
+        verify(delegate, times(1)).geocodeAddress(anyString());
+    }
+
+    @Test
+    void testGeocodeAddress_RemoteFailure_IsNotCached() {
+        when(delegate.geocodeAddress(anyString()))
+                .thenThrow(new ResourceAccessException("timeout"))
+                .thenReturn(new Coordinates(45.2, 5.7));
+
+        assertThrows(ResourceAccessException.class, () -> service.geocodeAddress("Grenoble"));
+        assertEquals(new Coordinates(45.2, 5.7), service.geocodeAddress("Grenoble"));
+
+        verify(delegate, times(2)).geocodeAddress(anyString());
+    }
+
+    @Test
+    void testGeocodeAddress_PastSoftTtl_ServesStaleAndRefreshes() {
+        // Arrange
+        Coordinates moved = new Coordinates(45.19, 5.72);
+        when(delegate.geocodeAddress(anyString())).thenReturn(new Coordinates(45.2, 5.7), moved);
+        service.geocodeAddress("Grenoble");
+        advance(Duration.ofHours(13));
+
+        // Act
+        Coordinates stale = service.geocodeAddress("Grenoble");
+        Coordinates refreshed = service.geocodeAddress("Grenoble");
+
+        // Assert
+        assertEquals(new Coordinates(45.2, 5.7), stale);
+        assertEquals(moved, refreshed);
+        verify(delegate, times(2)).geocodeAddress(anyString());
+    }
+
+    @Test
+    void testGeocodeAddress_Refresh_UsesRefresherWithOriginalAddressAtBatchPriority() {
+        // Arrange
+        MapService refresher = mock(MapService.class);
+        CachingGeocodeMapService refreshing = new CachingGeocodeMapService(delegate, refresher,
+            new CacheProperties.Geocode(), Runnable::run, new ErrorMessageProperties(), ticker::get);
+        AtomicReference<LookupPriority> refreshPriority = new AtomicReference<>();
+        when(delegate.geocodeAddress("Grenoble, France")).thenReturn(new Coordinates(45.2, 5.7));
+        when(refresher.geocodeAddress("Grenoble, France")).thenAnswer(invocation -> {
+            refreshPriority.set(LookupPriority.current());
+            return new Coordinates(45.19, 5.72);
+        });
+        refreshing.geocodeAddress("Grenoble, France");
+        advance(Duration.ofHours(13));
+
+        // Act
+        refreshing.geocodeAddress("grenoble,  france");
+
+        // Assert
+        assertEquals(new Coordinates(45.19, 5.72), refreshing.geocodeAddress("Grenoble, France"));
+        assertEquals(LookupPriority.BATCH, refreshPriority.get());
+        verify(delegate, times(1)).geocodeAddress(anyString());
+    }
+
+    @Test
+    void testGeocodeAddress_RefreshFails_KeepsStaleEntry() {
+        when(delegate.geocodeAddress(anyString()))
+                .thenReturn(new Coordinates(45.2, 5.7))
+                .thenThrow(new ResourceAccessException("timeout"));
+        service.geocodeAddress("Grenoble");
+        advance(Duration.ofHours(13));
+
+        assertEquals(new Coordinates(45.2, 5.7), service.geocodeAddress("Grenoble"));
+        assertEquals(new Coordinates(45.2, 5.7), service.geocodeAddress("Grenoble"));
+    }
+
+    @Test
+    void testGeocodeAddress_PastHardTtl_IsAMiss() {
+        when(delegate.geocodeAddress(anyString())).thenReturn(new Coordinates(45.2, 5.7));
+        service.geocodeAddress("Grenoble");
+        advance(Duration.ofHours(25));
+
+        service.geocodeAddress("Grenoble");
+
+        assertEquals(2, service.stats().missCount());
+    }
+
+    private void advance(Duration duration) {
+        ticker.addAndGet(duration.toNanos());
+    }
+}
@@ -0,0 +1,119 @@
+package com.oneday.service;
+
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.model.Coordinates;
+import com.oneday.util.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CircuitBreakerMapServiceUnitTest {
+
+    private static final Coordinates GRENOBLE = new Coordinates(45.1885, 5.7245);
+
+    @Mock
+    private MapService delegate;
+
+    private CircuitBreaker elevationBreaker;
+    private CircuitBreakerMapService service;
+
+    @BeforeEach
+    void setup() {
+        CircuitBreaker geocodeBreaker = new CircuitBreaker("geocode", 2, 2, 50, 100,
+            Duration.ofSeconds(1), Duration.ofMinutes(1), 1);
+        elevationBreaker = new CircuitBreaker("elevation", 2, 2, 50, 100,
+            Duration.ofSeconds(1), Duration.ofMinutes(1), 1);
+        service = new CircuitBreakerMapService(delegate, geocodeBreaker, elevationBreaker, new ErrorMessageProperties());
+    }
+
+    @Test
+    void testUpstreamErrors_OpenBreaker_AndFailFast() {
+        // Arrange
+        when(delegate.getElevationMeters(any())).thenThrow(new ResourceAccessException("Read timed out"));
+        assertThrows(ResourceAccessException.class, () -> service.getElevationMeters(GRENOBLE));
+        assertThrows(ResourceAccessException.class, () -> service.getElevationMeters(GRENOBLE));
+
+        // Act & Assert
+        assertEquals(CircuitBreaker.State.OPEN, elevationBreaker.getState());
+        assertThrows(UpstreamUnavailableException.class, () -> service.getElevationMeters(GRENOBLE));
+        CompletableFuture<Integer> async = service.getElevationMetersAsync(GRENOBLE);
+        CompletionException error = assertThrows(CompletionException.class, async::join);
+        assertTrue(error.getCause() instanceof UpstreamUnavailableException);
+        verify(delegate, times(2)).getElevationMeters(any());
+    }
+
+    @Test
+    void testAsyncTransportErrors_OpenBreaker() {
+        // Arrange: the non-blocking client fails with bare IOExceptions
+        when(delegate.getElevationMetersAsync(any()))
+            .thenReturn(CompletableFuture.failedFuture(new ConnectException("Connection refused")))
+            .thenReturn(CompletableFuture.failedFuture(new HttpConnectTimeoutException("HTTP connect timed out")));
+
+        // Act
+        assertThrows(CompletionException.class, () -> service.getElevationMetersAsync(GRENOBLE).join());
+        assertThrows(CompletionException.class, () -> service.getElevationMetersAsync(GRENOBLE).join());
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, elevationBreaker.getState());
+        CompletionException error = assertThrows(CompletionException.class,
+            () -> service.getElevationMetersAsync(GRENOBLE).join());
+        assertInstanceOf(UpstreamUnavailableException.class, error.getCause());
+        verify(delegate, times(2)).getElevationMetersAsync(any());
+    }
+
+    @Test
+    void testCancelledLookup_CancelsUpstream_AndIsNotRecorded() {
+        // Arrange
+        CompletableFuture<Integer> upstream = new CompletableFuture<>();
+        when(delegate.getElevationMetersAsync(GRENOBLE)).thenReturn(upstream);
+
+        // Act
+        service.getElevationMetersAsync(GRENOBLE).cancel(true);
+
+        // Assert
+        assertTrue(upstream.isCancelled());
+        when(delegate.getElevationMetersAsync(GRENOBLE))
+            .thenReturn(CompletableFuture.failedFuture(new ConnectException("Connection refused")));
+        assertThrows(CompletionException.class, service.getElevationMetersAsync(GRENOBLE)::join);
+        assertEquals(CircuitBreaker.State.CLOSED, elevationBreaker.getState());
+    }
+
+    @Test
+    void testNotFound_DoesNotCountAgainstBreaker() {
+        when(delegate.geocodeAddress("Nowhere")).thenThrow(new IllegalArgumentException("Address not found: Nowhere"));
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(IllegalArgumentException.class, () -> service.geocodeAddress("Nowhere"));
+        }
+
+        verify(delegate, times(3)).geocodeAddress("Nowhere");
+    }
+
+    @Test
+    void testGetAltitudeMeters_BreakerOpen_PropagatesUnavailable() {
+        // Arrange
+        when(delegate.geocodeAddress(any())).thenReturn(GRENOBLE);
+        when(delegate.getElevationMeters(any())).thenThrow(new ResourceAccessException("Connection refused"));
+        assertEquals(0, service.getAltitudeMeters("Grenoble"));
+        assertEquals(0, service.getAltitudeMeters("Grenoble"));
+
+        // Act & Assert: the pipeline no longer hides the outage behind a 0 altitude
+        assertThrows(UpstreamUnavailableException.class, () -> service.getAltitudeMeters("Grenoble"));
+    }
+}
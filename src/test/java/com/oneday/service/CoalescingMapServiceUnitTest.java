@@ -0,0 +1,141 @@
+package com.oneday.service;
+
+import com.oneday.config.CoalescingProperties;
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.model.Coordinates;
+import com.oneday.util.SingleFlight;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CoalescingMapServiceUnitTest {
+
+    private static final int CALLERS = 8;
+
+    @Mock
+    private MapService delegate;
+
+    private ExecutorService executor;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setup() {
+        executor = Executors.newFixedThreadPool(CALLERS);
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testGeocodeAddress_ConcurrentIdenticalCalls_CallDelegateOnce() throws Exception {
+        CoalescingMapService service = createService(Duration.ofSeconds(5));
+        when(delegate.geocodeAddress(anyString())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new Coordinates(48.8566, 2.3522);
+        });
+
+        List<Future<Coordinates>> results = submitConcurrently(service);
+        release.countDown();
+
+        for (Future<Coordinates> result : results) {
+            assertEquals(new Coordinates(48.8566, 2.3522), result.get(5, TimeUnit.SECONDS));
+        }
+        verify(delegate, times(1)).geocodeAddress(anyString());
+    }
+
+    @Test
+    void testGeocodeAddress_InFlightFailure_PropagatedToAllWaiters() throws Exception {
+        CoalescingMapService service = createService(Duration.ofSeconds(5));
+        when(delegate.geocodeAddress(anyString())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            throw new IllegalArgumentException("Address not found: Paris");
+        });
+
+        List<Future<Coordinates>> results = submitConcurrently(service);
+        release.countDown();
+
+        for (Future<Coordinates> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        }
+        verify(delegate, times(1)).geocodeAddress(anyString());
+    }
+
+    @Test
+    void testGeocodeAddress_InFlightCallTooSlow_WaiterTimesOut() throws Exception {
+        CoalescingMapService service = createService(Duration.ofMillis(50));
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        when(delegate.geocodeAddress(anyString())).thenAnswer(invocation -> {
+            leaderStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new Coordinates(48.8566, 2.3522);
+        });
+
+        Future<Coordinates> leader = executor.submit(() -> service.geocodeAddress("Paris"));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        assertThrows(SingleFlight.SingleFlightTimeoutException.class, () -> service.geocodeAddress("Paris"));
+        release.countDown();
+        assertEquals(new Coordinates(48.8566, 2.3522), leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testGeocodeAddressAsync_ConcurrentIdenticalCalls_ShareOneInFlightCall() throws Exception {
+        CoalescingMapService service = createService(Duration.ofSeconds(5));
+        CompletableFuture<Coordinates> upstream = new CompletableFuture<>();
+        when(delegate.geocodeAddressAsync(anyString())).thenReturn(upstream);
+
+        CompletableFuture<Coordinates> first = service.geocodeAddressAsync("Paris");
+        CompletableFuture<Coordinates> second = service.geocodeAddressAsync(" PARIS ");
+        upstream.complete(new Coordinates(48.8566, 2.3522));
+
+        assertEquals(new Coordinates(48.8566, 2.3522), first.get(5, TimeUnit.SECONDS));
+        assertEquals(new Coordinates(48.8566, 2.3522), second.get(5, TimeUnit.SECONDS));
+        verify(delegate, times(1)).geocodeAddressAsync(anyString());
+    }
+
+    private CoalescingMapService createService(Duration maxWait) {
+        CoalescingProperties properties = new CoalescingProperties();
+        properties.setMaxWait(maxWait);
+        return new CoalescingMapService(delegate, properties, new ErrorMessageProperties());
+    }
+
+    private List<Future<Coordinates>> submitConcurrently(CoalescingMapService service) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(CALLERS);
+        List<Future<Coordinates>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> {
+                started.countDown();
+                return service.geocodeAddress("Paris");
+            }));
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100); // let every caller reach the in-flight call
+        return results;
+    }
+}
@@ -0,0 +1,175 @@
+package com.oneday.service;
+
+import com.oneday.config.DemProperties;
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.model.Coordinates;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class DemTileElevationMapServiceUnitTest {
+
+    private static final short VOID = Short.MIN_VALUE;
+
+    @Mock
+    private MapService delegate;
+
+    @TempDir
+    Path demDirectory;
+
+    private DemTileElevationMapService service;
+
+    @BeforeEach
+    void setup() throws IOException {
+        // 3x3 samples over N45..46 / E005..006, rows north to south
+        writeTile("N45E005.hgt",
+            100, 200, 300,
+            400, 500, 600,
+            700, 800, 900);
+        // 4x4 samples over S01..00 / W002..001 with a single valid sample
+        writeTile("S01W002.hgt",
+            VOID, VOID, VOID, VOID,
+            VOID, 50, VOID, VOID,
+            VOID, VOID, VOID, VOID,
+            VOID, VOID, VOID, VOID);
+
+        DemProperties properties = new DemProperties();
+        properties.setDirectory(demDirectory.toString());
+        properties.setMaxOpenTiles(1);
+        service = new DemTileElevationMapService(delegate, properties, new ErrorMessageProperties());
+    }
+
+    @Test
+    void testGetElevationMeters_OnSample_ReturnsSample() {
+        // Arrange: south-west corner and tile centre
+        Coordinates southWest = new Coordinates(45.0, 5.0);
+        Coordinates centre = new Coordinates(45.5, 5.5);
+
+        // Act & Assert
+        assertEquals(700, service.getElevationMeters(southWest));
+        assertEquals(500, service.getElevationMeters(centre));
+        assertEquals(800, service.getElevationMeters(new Coordinates(45.0, 5.5)));
+        verify(delegate, never()).getElevationMeters(any());
+    }
+
+    @Test
+    void testGetElevationMeters_BetweenSamples_InterpolatesBilinearly() {
+        // Arrange: halfway between 100, 200, 400 and 500
+        Coordinates coordinates = new Coordinates(45.75, 5.25);
+
+        // Act
+        int elevation = service.getElevationMeters(coordinates);
+
+        // Assert
+        assertEquals(300, elevation);
+    }
+
+    @Test
+    void testGetElevationMeters_VoidNeighbours_AreIgnored() {
+        assertEquals(50, service.getElevationMeters(new Coordinates(-0.4, -1.4)));
+    }
+
+    @Test
+    void testGetElevationMeters_OnlyVoidSamples_FallsBackToDelegate() {
+        // Arrange
+        Coordinates coordinates = new Coordinates(-0.95, -1.05);
+        when(delegate.getElevationMeters(coordinates)).thenReturn(42);
+
+        // Act & Assert
+        assertEquals(42, service.getElevationMeters(coordinates));
+    }
+
+    @Test
+    void testGetElevationMeters_NoTile_FallsBackToDelegate() {
+        // Arrange
+        Coordinates paris = new Coordinates(48.8566, 2.3522);
+        when(delegate.getElevationMeters(paris)).thenReturn(35);
+        when(delegate.getElevationMetersAsync(paris)).thenReturn(CompletableFuture.completedFuture(35));
+
+        // Act & Assert
+        assertEquals(35, service.getElevationMeters(paris));
+        assertEquals(35, service.getElevationMetersAsync(paris).join());
+    }
+
+    @Test
+    void testGetElevationsMeters_ForwardsOnlyUncoveredCoordinates() {
+        // Arrange
+        Coordinates paris = new Coordinates(48.8566, 2.3522);
+        when(delegate.getElevationsMeters(List.of(paris))).thenReturn(new int[]{35});
+
+        // Act
+        int[] elevations = service.getElevationsMeters(List.of(new Coordinates(45.5, 5.5), paris));
+
+        // Assert
+        assertArrayEquals(new int[]{500, 35}, elevations);
+    }
+
+    @Test
+    void testGetElevationMeters_MissingTile_DoesNotEvictMappedTile() {
+        // Arrange
+        Coordinates paris = new Coordinates(48.8566, 2.3522);
+        when(delegate.getElevationMeters(paris)).thenReturn(35);
+        service.getElevationMeters(new Coordinates(45.5, 5.5));
+
+        // Act
+        service.getElevationMeters(paris);
+
+        // Assert
+        assertTrue(service.isMapped("N45E005.hgt"));
+        assertEquals(500, service.getElevationMeters(new Coordinates(45.5, 5.5)));
+    }
+
+    @Test
+    void testGetElevationMeters_MaxTilesMapped_UnmapsLeastRecentlyUsed() {
+        // Act
+        service.getElevationMeters(new Coordinates(45.5, 5.5));
+        service.getElevationMeters(new Coordinates(-0.75, -1.75));
+
+        // Assert
+        assertFalse(service.isMapped("N45E005.hgt"));
+        assertTrue(service.isMapped("S01W002.hgt"));
+    }
+
+    @Test
+    void testGetElevationMeters_UnreadableTile_FallsBackToDelegate() throws IOException {
+        // Arrange
+        Files.createDirectory(demDirectory.resolve("N10E010.hgt"));
+        Coordinates coordinates = new Coordinates(10.5, 10.5);
+        when(delegate.getElevationMeters(coordinates)).thenReturn(42);
+
+        // Act & Assert
+        assertEquals(42, service.getElevationMeters(coordinates));
+        assertFalse(service.isMapped("N10E010.hgt"));
+    }
+
+    @Test
+    void testTileName_UsesSouthWestCorner() {
+        assertEquals("N45E005.hgt", DemTileElevationMapService.tileName(45, 5));
+        assertEquals("S01W002.hgt", DemTileElevationMapService.tileName(-1, -2));
+    }
+
+    private void writeTile(String name, int... samples) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(samples.length * 2);
+        for (int sample : samples) {
+            buffer.putShort((short) sample);
+        }
+        Files.write(demDirectory.resolve(name), buffer.array());
+    }
+}
@@ -0,0 +1,82 @@
+package com.oneday.service;
+
+import com.oneday.config.CacheProperties;
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.model.Coordinates;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ElevationCachingMapServiceUnitTest {
+
+    @Mock
+    private MapService delegate;
+
+    private ElevationCachingMapService service;
+
+    @BeforeEach
+    void setup() {
+        CacheProperties.Elevation properties = new CacheProperties.Elevation();
+        properties.setGridDegrees(0.001);
+        service = new ElevationCachingMapService(delegate, properties, new ErrorMessageProperties());
+    }
+
+    @Test
+    void testGetElevationMeters_NeighbouringCoordinates_ShareOneLookup() {
+        when(delegate.getElevationMeters(any())).thenReturn(35);
+
+        assertEquals(35, service.getElevationMeters(new Coordinates(48.85661, 2.35221)));
+        assertEquals(35, service.getElevationMeters(new Coordinates(48.85669, 2.35229)));
+
+        verify(delegate, times(1)).getElevationMeters(any());
+        assertEquals(1, service.hitCount());
+        assertEquals(1, service.missCount());
+    }
+
+    @Test
+    void testGetElevationMeters_DifferentCells_LookedUpSeparately() {
+        when(delegate.getElevationMeters(any())).thenReturn(35, 212);
+
+        assertEquals(35, service.getElevationMeters(new Coordinates(48.8566, 2.3522)));
+        assertEquals(212, service.getElevationMeters(new Coordinates(45.1885, 5.7245)));
+
+        verify(delegate, times(2)).getElevationMeters(any());
+    }
+
+    @Test
+    void testCellKey_NegativeCoordinates_DoNotCollideWithPositive() {
+        long west = service.cellKey(new Coordinates(48.5, -2.5));
+        long east = service.cellKey(new Coordinates(48.5, 2.5));
+        assertNotEquals(west, east);
+    }
+
+    @Test
+    void testCellKey_ExtremeCoordinates_AreNonNegativeAndCached() {
+        when(delegate.getElevationMeters(any())).thenReturn(2835);
+
+        assertTrue(service.cellKey(new Coordinates(-90, -180)) >= 0);
+        assertTrue(service.cellKey(new Coordinates(90, 180)) >= 0);
+        assertTrue(service.cellKey(new Coordinates(-1e9, Double.NEGATIVE_INFINITY)) >= 0);
+        assertEquals(2835, service.getElevationMeters(new Coordinates(-90, -180)));
+        assertEquals(2835, service.getElevationMeters(new Coordinates(-90, -180)));
+        assertEquals(1, service.hitCount());
+    }
+
+    @Test
+    void testConstructor_GridTooFineForIntCells_Rejected() {
+        CacheProperties.Elevation properties = new CacheProperties.Elevation();
+        properties.setGridDegrees(1e-9);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> new ElevationCachingMapService(delegate, properties, new ErrorMessageProperties()));
+    }
+}
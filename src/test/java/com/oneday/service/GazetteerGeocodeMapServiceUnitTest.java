@@ -0,0 +1,77 @@
+package com.oneday.service;
+
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.model.Coordinates;
+import com.oneday.model.Gazetteer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class GazetteerGeocodeMapServiceUnitTest {
+
+    private static final Coordinates GRENOBLE = new Coordinates(45.1885, 5.7245);
+
+    @Mock
+    private MapService delegate;
+
+    private GazetteerGeocodeMapService service;
+
+    @BeforeEach
+    void setup() {
+        Gazetteer gazetteer = Gazetteer.of(List.of("Grenoble"), List.of(GRENOBLE));
+        service = new GazetteerGeocodeMapService(delegate, gazetteer, new ErrorMessageProperties());
+    }
+
+    @Test
+    void testGeocodeAddress_LocalHit_SkipsDelegate() {
+        assertEquals(GRENOBLE, service.geocodeAddress("38000 Grenoble"));
+        assertEquals(GRENOBLE, service.geocodeAddressAsync("Grenoble").join());
+
+        verify(delegate, never()).geocodeAddress(any());
+        verify(delegate, never()).geocodeAddressAsync(any());
+        assertEquals(1.0, service.hitRate());
+    }
+
+    @Test
+    void testGeocodeAddress_LocalMiss_FallsBackToDelegate() {
+        // Arrange
+        Coordinates paris = new Coordinates(48.8566, 2.3522);
+        when(delegate.geocodeAddress("Paris")).thenReturn(paris);
+
+        // Act
+        Coordinates coordinates = service.geocodeAddress("Paris");
+        service.geocodeAddress("Grenoble");
+
+        // Assert
+        assertEquals(paris, coordinates);
+        assertEquals(1, service.hitCount());
+        assertEquals(1, service.missCount());
+        assertEquals(0.5, service.hitRate());
+    }
+
+    @Test
+    void testGeocodeAddress_StreetAddressInKnownCommune_GoesUpstream() {
+        // Arrange
+        Coordinates street = new Coordinates(45.1911, 5.7272);
+        when(delegate.geocodeAddress("12 Rue X, 38000 Grenoble")).thenReturn(street);
+
+        // Act
+        Coordinates coordinates = service.geocodeAddress("12 Rue X, 38000 Grenoble");
+
+        // Assert
+        assertEquals(street, coordinates);
+        assertEquals(0, service.hitCount());
+        assertEquals(1, service.missCount());
+    }
+}
@@ -0,0 +1,180 @@
+package com.oneday.service;
+
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.config.HedgingProperties;
+import com.oneday.model.Coordinates;
+import com.oneday.util.LookupPriority;
+import com.oneday.util.TokenBucketRateLimiter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class HedgingElevationMapServiceUnitTest {
+
+    private static final Coordinates GRENOBLE = new Coordinates(45.1885, 5.7245);
+
+    @Mock
+    private MapService delegate;
+
+    private HedgingProperties properties;
+
+    @BeforeEach
+    void setup() {
+        properties = new HedgingProperties();
+        properties.setInitialDelay(Duration.ofMillis(20));
+        properties.setBudgetPercent(100);
+    }
+
+    @Test
+    void testFastPrimary_NoHedge() {
+        // Arrange
+        HedgingElevationMapService service = new HedgingElevationMapService(delegate, properties, new ErrorMessageProperties());
+        when(delegate.getElevationMetersAsync(GRENOBLE)).thenReturn(CompletableFuture.completedFuture(212));
+
+        // Act
+        int elevation = service.getElevationMeters(GRENOBLE);
+
+        // Assert
+        assertEquals(212, elevation);
+        assertEquals(0, service.hedgeCount());
+        verify(delegate, times(1)).getElevationMetersAsync(GRENOBLE);
+    }
+
+    @Test
+    void testSlowPrimary_HedgeWins_AndPrimaryIsCancelled() {
+        // Arrange
+        HedgingElevationMapService service = new HedgingElevationMapService(delegate, properties, new ErrorMessageProperties());
+        CompletableFuture<Integer> stuckPrimary = new CompletableFuture<>();
+        when(delegate.getElevationMetersAsync(GRENOBLE))
+            .thenReturn(stuckPrimary)
+            .thenReturn(CompletableFuture.completedFuture(212));
+
+        // Act
+        int elevation = service.getElevationMeters(GRENOBLE);
+
+        // Assert
+        assertEquals(212, elevation);
+        assertEquals(1, service.hedgeCount());
+        assertEquals(1, service.hedgeWinCount());
+        assertTrue(stuckPrimary.isCancelled());
+    }
+
+    @Test
+    void testPrimaryAndHedgeFail_ResultFails() {
+        HedgingElevationMapService service = new HedgingElevationMapService(delegate, properties, new ErrorMessageProperties());
+        CompletableFuture<Integer> slowFailure = new CompletableFuture<>();
+        when(delegate.getElevationMetersAsync(GRENOBLE))
+            .thenReturn(slowFailure)
+            .thenReturn(CompletableFuture.failedFuture(new ResourceAccessException("Connection reset")));
+
+        CompletableFuture<Integer> result = service.getElevationMetersAsync(GRENOBLE);
+        // Wait for the hedge to be sent and fail, then fail the primary
+        while (service.hedgeCount() == 0) {
+            Thread.onSpinWait();
+        }
+        assertFalse(result.isDone());
+        slowFailure.completeExceptionally(new ResourceAccessException("Read timed out"));
+
+        CompletionException error = assertThrows(CompletionException.class, result::join);
+        assertTrue(error.getCause() instanceof ResourceAccessException);
+    }
+
+    @Test
+    void testBudgetExhausted_NoHedge() {
+        // Arrange
+        properties.setBudgetPercent(0);
+        HedgingElevationMapService service = new HedgingElevationMapService(delegate, properties, new ErrorMessageProperties());
+        CompletableFuture<Integer> slowPrimary = new CompletableFuture<>();
+        when(delegate.getElevationMetersAsync(GRENOBLE)).thenReturn(slowPrimary);
+
+        // Act
+        CompletableFuture<Integer> result = service.getElevationMetersAsync(GRENOBLE);
+        while (service.budgetExhaustedCount() == 0) {
+            Thread.onSpinWait();
+        }
+        slowPrimary.complete(212);
+
+        // Assert
+        assertEquals(212, result.join());
+        assertEquals(0, service.hedgeCount());
+    }
+
+    @Test
+    void testSavedBudgetIsCapped() {
+        // Arrange: many fast lookups earn one hedge at most
+        properties.setBudgetBurst(1);
+        HedgingElevationMapService service = new HedgingElevationMapService(delegate, properties, new ErrorMessageProperties());
+        CompletableFuture<Integer> slowPrimary = new CompletableFuture<>();
+        when(delegate.getElevationMetersAsync(GRENOBLE)).thenReturn(CompletableFuture.completedFuture(212));
+        for (int i = 0; i < 10; i++) {
+            service.getElevationMeters(GRENOBLE);
+        }
+        when(delegate.getElevationMetersAsync(GRENOBLE)).thenReturn(slowPrimary);
+
+        // Act
+        service.getElevationMetersAsync(GRENOBLE);
+        service.getElevationMetersAsync(GRENOBLE);
+        while (service.hedgeCount() + service.budgetExhaustedCount() < 2) {
+            Thread.onSpinWait();
+        }
+
+        // Assert
+        assertEquals(1, service.hedgeCount());
+        assertEquals(1, service.budgetExhaustedCount());
+        slowPrimary.complete(212);
+    }
+
+    @Test
+    void testNoRateLimitToken_HedgeSkipped() {
+        // Arrange
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("elevation", 0.1, 1, 10, Duration.ofSeconds(1));
+        limiter.acquire(LookupPriority.INTERACTIVE);
+        HedgingElevationMapService service =
+            new HedgingElevationMapService(delegate, properties, limiter, new ErrorMessageProperties());
+        CompletableFuture<Integer> slowPrimary = new CompletableFuture<>();
+        when(delegate.getElevationMetersAsync(GRENOBLE)).thenReturn(slowPrimary);
+
+        // Act
+        CompletableFuture<Integer> result = service.getElevationMetersAsync(GRENOBLE);
+        while (service.rateLimitedCount() == 0) {
+            Thread.onSpinWait();
+        }
+        slowPrimary.complete(212);
+
+        // Assert
+        assertEquals(212, result.join());
+        assertEquals(0, service.hedgeCount());
+        assertEquals(0, limiter.queueDepth());
+        limiter.close();
+    }
+
+    @Test
+    void testClosed_LookupsGoOnWithoutHedge() {
+        // Arrange
+        HedgingElevationMapService service = new HedgingElevationMapService(delegate, properties, new ErrorMessageProperties());
+        CompletableFuture<Integer> slowPrimary = new CompletableFuture<>();
+        when(delegate.getElevationMetersAsync(GRENOBLE)).thenReturn(slowPrimary);
+
+        // Act
+        service.close();
+        CompletableFuture<Integer> result = service.getElevationMetersAsync(GRENOBLE);
+        slowPrimary.complete(212);
+
+        // Assert
+        assertEquals(212, result.join());
+        assertEquals(0, service.hedgeCount());
+    }
+}
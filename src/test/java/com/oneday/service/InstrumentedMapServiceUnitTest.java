@@ -0,0 +1,105 @@
+package com.oneday.service;
+
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.model.Coordinates;
+import com.oneday.util.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class InstrumentedMapServiceUnitTest {
+
+    private static final Coordinates GRENOBLE = new Coordinates(45.1885, 5.7245);
+
+    @Mock
+    private MapService delegate;
+
+    private SimpleMeterRegistry registry;
+    private InstrumentedMapService service;
+
+    @BeforeEach
+    void setup() {
+        registry = new SimpleMeterRegistry();
+        service = new InstrumentedMapService(delegate, registry, "lookup.stage",
+            Tags.of("stage", "geocode"), Tags.of("stage", "elevation"), new ErrorMessageProperties());
+    }
+
+    @Test
+    void testGetAltitudeMeters_TimesEachStage() {
+        // Arrange
+        when(delegate.geocodeAddress("Grenoble")).thenReturn(GRENOBLE);
+        when(delegate.getElevationMeters(GRENOBLE)).thenReturn(212);
+
+        // Act
+        int altitude = service.getAltitudeMeters("Grenoble");
+
+        // Assert
+        assertEquals(212, altitude);
+        assertEquals(1, stageCount("geocode", "success"));
+        assertEquals(1, stageCount("elevation", "success"));
+        assertNull(registry.find("altitude.fallback").counter());
+    }
+
+    @Test
+    void testGetAltitudeMeters_UpstreamError_CountsFallbackByType() {
+        // Arrange
+        when(delegate.geocodeAddress("Grenoble")).thenReturn(GRENOBLE);
+        when(delegate.getElevationMeters(GRENOBLE))
+            .thenThrow(HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", null, null, null));
+
+        // Act
+        int altitude = service.getAltitudeMeters("Grenoble");
+
+        // Assert
+        assertEquals(0, altitude);
+        assertEquals(1, stageCount("elevation", "http_429"));
+        assertEquals(1, registry.get("altitude.fallback").tag("reason", "http_429").counter().count());
+    }
+
+    @Test
+    void testGetAltitudeMetersAsync_NotFound_TimesFailedStage() {
+        // Arrange
+        when(delegate.geocodeAddressAsync("Nowhere"))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalArgumentException("Address not found: Nowhere")));
+
+        // Act
+        int altitude = service.getAltitudeMetersAsync("Nowhere").join();
+
+        // Assert
+        assertEquals(0, altitude);
+        assertEquals(1, stageCount("geocode", "not_found"));
+        assertEquals(1, registry.get("altitude.fallback").tag("reason", "not_found").counter().count());
+    }
+
+    @Test
+    void testOutcome_ClassifiesErrors() {
+        assertEquals("success", InstrumentedMapService.outcome(null));
+        assertEquals("timeout", InstrumentedMapService.outcome(
+            new ResourceAccessException("I/O error", new SocketTimeoutException("Read timed out"))));
+        assertEquals("timeout", InstrumentedMapService.outcome(new HttpTimeoutException("request timed out")));
+        assertEquals("io", InstrumentedMapService.outcome(new ResourceAccessException("Timed out waiting for rate limit")));
+        assertEquals("circuit_open", InstrumentedMapService.outcome(new UpstreamUnavailableException("open", null)));
+        assertEquals("rate_limited", InstrumentedMapService.outcome(new UpstreamUnavailableException("queue full",
+            new TokenBucketRateLimiter.RateLimitExceededException("Wait queue for geocode is full (100)"))));
+        assertEquals("other", InstrumentedMapService.outcome(new IllegalStateException()));
+    }
+
+    private long stageCount(String stage, String outcome) {
+        return registry.get("lookup.stage").tags("stage", stage, "outcome", outcome).timer().count();
+    }
+}
@@ -3,9 +3,21 @@ package com.oneday.service;
 import com.oneday.config.ApiProperties;
 import com.oneday.config.ErrorMessageProperties;
 import com.oneday.config.ServiceMessageProperties;
+import com.oneday.model.Coordinates;
 import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class MapOsmServiceUnitTest {
 
@@ -14,7 +26,7 @@ public class MapOsmServiceUnitTest {
         ApiProperties apiProps = new ApiProperties();
         ServiceMessageProperties serviceMessages = new ServiceMessageProperties();
         ErrorMessageProperties errorMessages = new ErrorMessageProperties();
-        MapOsmService service = new MapOsmService(null, apiProps, serviceMessages, errorMessages);
+        MapOsmService service = new MapOsmService(null, null, null, apiProps, serviceMessages, errorMessages);
         int result = service.getAltitudeMeters(null);
         assertEquals(0, result);
     }
@@ -24,9 +36,50 @@ public class MapOsmServiceUnitTest {
         ApiProperties apiProps = new ApiProperties();
         ServiceMessageProperties serviceMessages = new ServiceMessageProperties();
         ErrorMessageProperties errorMessages = new ErrorMessageProperties();
-        MapOsmService service = new MapOsmService(null, apiProps, serviceMessages, errorMessages);
+        MapOsmService service = new MapOsmService(null, null, null, apiProps, serviceMessages, errorMessages);
         int result = service.getAltitudeMeters("   ");
         assertEquals(0, result);
     }
-}
 
+    @Test
+    void testGetElevationMetersAsync_Cancelled_CancelsExchange() {
+        // Arrange
+        HttpClient httpClient = mock(HttpClient.class);
+        CompletableFuture<HttpResponse<Object>> exchange = new CompletableFuture<>();
+        when(httpClient.sendAsync(any(), any())).thenReturn(exchange);
+        ApiProperties apiProps = new ApiProperties();
+        apiProps.setElevationUrl("https://api.open-elevation.com/api/v1/lookup");
+        apiProps.setUserAgent("oneday-java-app/1.0");
+        MapOsmService service = new MapOsmService(null, httpClient, null, apiProps,
+            new ServiceMessageProperties(), new ErrorMessageProperties());
+
+        // Act
+        service.getElevationMetersAsync(new Coordinates(45.1885, 5.7245)).cancel(true);
+
+        // Assert: cancelling the exchange future aborts the request in the JDK client
+        assertTrue(exchange.isCancelled());
+    }
+
+    @Test
+    void testGetElevationMeters_NearEquatorAndPrimeMeridian_SendsPlainCoordinates() {
+        // Arrange
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        MapOsmService.ElevationResult result = new MapOsmService.ElevationResult();
+        result.setElevation(12.0);
+        MapOsmService.ElevationResponse response = new MapOsmService.ElevationResponse();
+        response.setResults(new MapOsmService.ElevationResult[]{result});
+        when(restTemplate.getForObject(anyString(), eq(MapOsmService.ElevationResponse.class))).thenReturn(response);
+        ApiProperties apiProps = new ApiProperties();
+        apiProps.setElevationUrl("https://api.open-elevation.com/api/v1/lookup");
+        MapOsmService service = new MapOsmService(restTemplate, null, null, apiProps,
+            new ServiceMessageProperties(), new ErrorMessageProperties());
+
+        // Act
+        int elevation = service.getElevationMeters(new Coordinates(0.00005, -0.0001));
+
+        // Assert
+        assertEquals(12, elevation);
+        verify(restTemplate).getForObject(
+            "https://api.open-elevation.com/api/v1/lookup?locations=0.000050,-0.00010", MapOsmService.ElevationResponse.class);
+    }
+}
@@ -0,0 +1,67 @@
+package com.oneday.service;
+
+import com.oneday.config.CacheProperties;
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.model.Coordinates;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PersistentCacheMapServiceUnitTest {
+
+    private static final Coordinates GRENOBLE = new Coordinates(45.1885, 5.7245);
+    private static final Coordinates MOVED = new Coordinates(45.19, 5.72);
+
+    @Mock
+    private MapService delegate;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testGeocodeAddress_Stored_IsNotFetchedAgain() {
+        when(delegate.geocodeAddress("Grenoble")).thenReturn(GRENOBLE);
+        try (PersistentLookupStore store = new PersistentLookupStore(properties())) {
+            PersistentCacheMapService service = new PersistentCacheMapService(delegate, store, new ErrorMessageProperties());
+
+            service.geocodeAddress("Grenoble");
+
+            assertEquals(GRENOBLE, service.geocodeAddress("grenoble "));
+            verify(delegate, times(1)).geocodeAddress("Grenoble");
+        }
+    }
+
+    @Test
+    void testWriteThrough_FetchesUpstream_AndStoresResult() {
+        // Arrange
+        when(delegate.geocodeAddress("Grenoble")).thenReturn(GRENOBLE, MOVED);
+        try (PersistentLookupStore store = new PersistentLookupStore(properties())) {
+            PersistentCacheMapService service = new PersistentCacheMapService(delegate, store, new ErrorMessageProperties());
+            service.geocodeAddress("Grenoble");
+
+            // Act
+            Coordinates refreshed = service.writeThrough().geocodeAddress("Grenoble");
+
+            // Assert
+            assertEquals(MOVED, refreshed);
+            assertEquals(MOVED, service.geocodeAddress("Grenoble"));
+            verify(delegate, times(2)).geocodeAddress("Grenoble");
+        }
+    }
+
+    private CacheProperties.Persistent properties() {
+        CacheProperties.Persistent properties = new CacheProperties.Persistent();
+        properties.setFile(directory.resolve("lookups.log").toString());
+        return properties;
+    }
+}
@@ -0,0 +1,238 @@
+package com.oneday.service;
+
+import com.oneday.config.CacheProperties;
+import com.oneday.model.Coordinates;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PersistentLookupStoreUnitTest {
+
+    private static final Coordinates GRENOBLE = new Coordinates(45.1885, 5.7245);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testReopen_ResultsSurviveRestart() {
+        // Arrange
+        CacheProperties.Persistent properties = properties();
+        try (PersistentLookupStore store = new PersistentLookupStore(properties)) {
+            store.putCoordinates("grenoble", GRENOBLE);
+            store.putElevation(GRENOBLE, 212);
+        }
+
+        // Act
+        try (PersistentLookupStore reopened = new PersistentLookupStore(properties)) {
+            // Assert
+            assertEquals(GRENOBLE, reopened.getCoordinates("grenoble"));
+            assertEquals(212, reopened.getElevation(GRENOBLE));
+            assertNull(reopened.getCoordinates("paris"));
+        }
+    }
+
+    @Test
+    void testReopen_ExpiredResultsAreDropped() {
+        // Arrange
+        CacheProperties.Persistent properties = properties();
+        Instant start = Instant.parse("2026-01-01T00:00:00Z");
+        try (PersistentLookupStore store = new PersistentLookupStore(properties, Clock.fixed(start, ZoneOffset.UTC))) {
+            store.putCoordinates("grenoble", GRENOBLE);
+        }
+
+        // Act
+        Clock later = Clock.fixed(start.plus(Duration.ofDays(31)), ZoneOffset.UTC);
+        try (PersistentLookupStore reopened = new PersistentLookupStore(properties, later)) {
+            // Assert
+            assertNull(reopened.getCoordinates("grenoble"));
+            assertEquals(0, reopened.geocodeCount());
+        }
+    }
+
+    @Test
+    void testReopen_TruncatedTail_KeepsCompleteRecords() throws IOException {
+        // Arrange
+        CacheProperties.Persistent properties = properties();
+        try (PersistentLookupStore store = new PersistentLookupStore(properties)) {
+            store.putCoordinates("grenoble", GRENOBLE);
+        }
+        // Simulate a crash in the middle of appending an elevation record
+        Files.write(directory.resolve("lookups.log"), new byte[]{2, 0, 0, 1}, StandardOpenOption.APPEND);
+
+        // Act
+        try (PersistentLookupStore reopened = new PersistentLookupStore(properties)) {
+            // Assert
+            assertEquals(GRENOBLE, reopened.getCoordinates("grenoble"));
+            assertEquals(0, reopened.elevationCount());
+        }
+    }
+
+    @Test
+    void testReopen_CorruptUtfTail_KeepsCompleteRecordsAndTruncatesLog() throws IOException {
+        // Arrange
+        CacheProperties.Persistent properties = properties();
+        Path file = directory.resolve("lookups.log");
+        try (PersistentLookupStore store = new PersistentLookupStore(properties)) {
+            store.putCoordinates("grenoble", GRENOBLE);
+        }
+        long goodSize = Files.size(file);
+        // Geocode record whose address is not valid modified UTF-8
+        ByteArrayOutputStream corrupt = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(corrupt)) {
+            out.writeByte(1);
+            out.writeLong(System.currentTimeMillis());
+            out.writeShort(2);
+            out.write(new byte[]{(byte) 0xFF, (byte) 0xFF});
+            out.writeDouble(48.8566);
+            out.writeDouble(2.3522);
+        }
+        Files.write(file, corrupt.toByteArray(), StandardOpenOption.APPEND);
+
+        // Act
+        try (PersistentLookupStore reopened = new PersistentLookupStore(properties)) {
+            // Assert
+            assertEquals(GRENOBLE, reopened.getCoordinates("grenoble"));
+            assertEquals(1, reopened.geocodeCount());
+        }
+        assertEquals(goodSize, Files.size(file));
+    }
+
+    @Test
+    void testPutCoordinates_AddressTooLongForLog_IsNotStored() {
+        // Arrange
+        CacheProperties.Persistent properties = properties();
+        String longAddress = "é".repeat(40_000);
+        Coordinates paris = new Coordinates(48.8566, 2.3522);
+
+        // Act
+        try (PersistentLookupStore store = new PersistentLookupStore(properties)) {
+            store.putCoordinates("grenoble", GRENOBLE);
+            store.putCoordinates(longAddress, GRENOBLE);
+            store.putCoordinates("paris", paris);
+            assertNull(store.getCoordinates(longAddress));
+        }
+
+        // Assert: the records queued around it are written intact
+        try (PersistentLookupStore reopened = new PersistentLookupStore(properties)) {
+            assertEquals(GRENOBLE, reopened.getCoordinates("grenoble"));
+            assertEquals(paris, reopened.getCoordinates("paris"));
+            assertEquals(2, reopened.geocodeCount());
+        }
+    }
+
+    @Test
+    void testCompact_OverMaxEntries_DropsOldestAndShrinksLog() throws IOException {
+        // Arrange
+        CacheProperties.Persistent properties = properties();
+        properties.setMaxEntries(10);
+        Instant start = Instant.parse("2026-01-01T00:00:00Z");
+        MutableClock clock = new MutableClock(start);
+        try (PersistentLookupStore store = new PersistentLookupStore(properties, clock)) {
+            for (int i = 0; i < 20; i++) {
+                clock.advance(Duration.ofSeconds(1));
+                store.putCoordinates("address " + i, GRENOBLE);
+            }
+            store.compact();
+            long compactedSize = Files.size(directory.resolve("lookups.log"));
+
+            // Assert: trimmed to 90% of the maximum, newest kept
+            assertEquals(9, store.geocodeCount());
+            assertEquals(11, store.evictionCount());
+            assertNull(store.getCoordinates("address 10"));
+            assertEquals(GRENOBLE, store.getCoordinates("address 19"));
+            assertTrue(compactedSize > 0);
+        }
+
+        // Act
+        try (PersistentLookupStore reopened = new PersistentLookupStore(properties, clock)) {
+            // Assert
+            assertEquals(9, reopened.geocodeCount());
+            assertNull(reopened.getCoordinates("address 0"));
+        }
+    }
+
+    @Test
+    void testCompact_ExpiredResults_AreSweptWhileRunning() throws IOException {
+        // Arrange
+        Instant start = Instant.parse("2026-01-01T00:00:00Z");
+        MutableClock clock = new MutableClock(start);
+        try (PersistentLookupStore store = new PersistentLookupStore(properties(), clock)) {
+            store.putCoordinates("grenoble", GRENOBLE);
+            store.putElevation(GRENOBLE, 212);
+            clock.advance(Duration.ofDays(31));
+            store.putCoordinates("paris", new Coordinates(48.8566, 2.3522));
+
+            // Act
+            store.compact();
+
+            // Assert
+            assertEquals(1, store.geocodeCount());
+            assertEquals(0, store.elevationCount());
+        }
+    }
+
+    @Test
+    void testCompact_WritesAfterCompaction_AreAppended() throws IOException {
+        // Arrange
+        CacheProperties.Persistent properties = properties();
+        try (PersistentLookupStore store = new PersistentLookupStore(properties)) {
+            store.putCoordinates("grenoble", GRENOBLE);
+            store.compact();
+
+            // Act
+            store.putElevation(GRENOBLE, 212);
+        }
+
+        // Assert
+        try (PersistentLookupStore reopened = new PersistentLookupStore(properties)) {
+            assertEquals(GRENOBLE, reopened.getCoordinates("grenoble"));
+            assertEquals(212, reopened.getElevation(GRENOBLE));
+        }
+    }
+
+    private CacheProperties.Persistent properties() {
+        CacheProperties.Persistent properties = new CacheProperties.Persistent();
+        properties.setFile(directory.resolve("lookups.log").toString());
+        return properties;
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.oneday.service;
+
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.model.Coordinates;
+import com.oneday.util.CircuitBreaker;
+import com.oneday.util.LookupPriority;
+import com.oneday.util.TokenBucketRateLimiter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class RateLimitedMapServiceUnitTest {
+
+    @Mock
+    private MapService delegate;
+
+    private TokenBucketRateLimiter geocodeLimiter;
+    private CircuitBreaker geocodeBreaker;
+    private RateLimitedMapService service;
+
+    @BeforeEach
+    void setup() {
+        // One token every 10 s, already taken: the limiter is saturated
+        geocodeLimiter = new TokenBucketRateLimiter("geocode", 0.1, 1, 100, Duration.ofSeconds(10));
+        geocodeLimiter.acquire(LookupPriority.INTERACTIVE);
+        geocodeBreaker = new CircuitBreaker("geocode", 2, 2, 50, 100,
+            Duration.ofSeconds(1), Duration.ofMinutes(1), 1);
+        service = new RateLimitedMapService(delegate, geocodeLimiter, null, geocodeBreaker, null,
+            new ErrorMessageProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    @Test
+    void testBreakerOpen_FailsFastWithoutWaitingForToken() {
+        // Arrange
+        openBreaker();
+
+        // Act
+        long start = System.nanoTime();
+        assertThrows(UpstreamUnavailableException.class, () -> service.geocodeAddress("Grenoble"));
+        CompletableFuture<Coordinates> async = service.geocodeAddressAsync("Grenoble");
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Assert
+        CompletionException error = assertThrows(CompletionException.class, async::join);
+        assertTrue(error.getCause() instanceof UpstreamUnavailableException);
+        assertTrue(elapsedMillis < 1000, "took " + elapsedMillis + " ms");
+        assertEquals(0, geocodeLimiter.queueDepth());
+        verify(delegate, never()).geocodeAddress(anyString());
+    }
+
+    @Test
+    void testLimiterRejects_FailsAsUnavailableInsteadOfZeroAltitude() {
+        // Arrange: no token and no room to wait for one
+        TokenBucketRateLimiter full = new TokenBucketRateLimiter("geocode", 0.1, 1, 0, Duration.ofSeconds(10));
+        full.acquire(LookupPriority.INTERACTIVE);
+        RateLimitedMapService limited = new RateLimitedMapService(delegate, full, null, new ErrorMessageProperties());
+
+        // Act & Assert
+        assertThrows(UpstreamUnavailableException.class, () -> limited.geocodeAddress("Grenoble"));
+        assertThrows(UpstreamUnavailableException.class, () -> limited.getAltitudeMeters("Grenoble"));
+        CompletionException error = assertThrows(CompletionException.class,
+            limited.getAltitudeMetersAsync("Grenoble")::join);
+        assertTrue(error.getCause() instanceof UpstreamUnavailableException);
+        limited.close();
+    }
+
+    private void openBreaker() {
+        for (int i = 0; i < 2; i++) {
+            geocodeBreaker.onFailure(geocodeBreaker.acquirePermission(), 0);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, geocodeBreaker.getState());
+    }
+}
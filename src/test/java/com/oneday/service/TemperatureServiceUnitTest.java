@@ -5,7 +5,10 @@ import com.oneday.config.ServiceMessageProperties;
 import com.oneday.model.AltitudeOffsetRange;
 import com.oneday.model.PostalTemperature;
 import com.oneday.repository.AltitudeOffsetRangeRepository;
+import com.oneday.repository.PostalCentroidRepository;
 import com.oneday.repository.PostalTemperatureRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,11 +16,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
-import java.util.Optional;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,12 +36,17 @@ public class TemperatureServiceUnitTest {
     @Mock
     private AltitudeOffsetRangeRepository altitudeOffsetRangeRepository;
 
+    @Mock
+    private PostalCentroidRepository centroidRepository;
+
     @Mock
     private ErrorMessageProperties errorMessages;
 
     @Mock
     private ServiceMessageProperties serviceMessages;
 
+    private TemperatureLookupTables lookupTables;
+
     private TemperatureService temperatureService;
 
     @BeforeEach
@@ -51,7 +60,10 @@ public class TemperatureServiceUnitTest {
         lenient().when(errorMessages.getPostalCodeNotFound()).thenReturn("Postal Code prefix not found in temperature data or vice versa.");
         lenient().when(errorMessages.getAltitudeExceed()).thenReturn("Altitude exceed {0} meters, no temperature offset data available.");
 
-        temperatureService = new TemperatureService(repository, mapService, altitudeOffsetRangeRepository, errorMessages, serviceMessages);
+        lookupTables = new TemperatureLookupTables(repository, altitudeOffsetRangeRepository, centroidRepository,
+            OpenTelemetry.noop().getTracer("test"));
+        temperatureService = new TemperatureService(lookupTables, mapService, errorMessages, serviceMessages,
+            new SimpleMeterRegistry());
 
         // default offset ranges matching datasets/offsets.json
         lenient().when(altitudeOffsetRangeRepository.findAllByOrderByFromMetersAsc()).thenReturn(Arrays.asList(
@@ -68,7 +80,7 @@ public class TemperatureServiceUnitTest {
     @Test
     void testGetStandardMinTemperature_AltitudeAbove1200_ThrowsIllegalArgumentException() {
         // Arrange
-        when(repository.findById("75")).thenReturn(Optional.of(new PostalTemperature("75", -5.0)));
+        givenPostalTemperatures(new PostalTemperature("75", -5.0));
         when(mapService.getAltitudeMeters(anyString())).thenReturn(1201); // > 1200
 
         // Act & Assert
@@ -79,7 +91,7 @@ public class TemperatureServiceUnitTest {
     @Test
     void testGetStandardMinTemperature_AltitudeExactly1200_DoesNotThrow() {
         // Arrange
-        when(repository.findById("75")).thenReturn(Optional.of(new PostalTemperature("75", -5.0)));
+        givenPostalTemperatures(new PostalTemperature("75", -5.0));
         when(mapService.getAltitudeMeters(anyString())).thenReturn(1200); // exactly 1200, should not throw
 
         // Act
@@ -92,7 +104,7 @@ public class TemperatureServiceUnitTest {
     @Test
     void testGetStandardMinTemperature_PostalCodeNotFound_ThrowsIllegalArgumentException() {
         // Arrange
-        when(repository.findById("99")).thenReturn(Optional.empty()); // Not found
+        givenPostalTemperatures(); // 99 not found
         lenient().when(mapService.getAltitudeMeters(anyString())).thenReturn(100);
 
         // Act & Assert
@@ -103,7 +115,7 @@ public class TemperatureServiceUnitTest {
     @Test
     void testGetStandardMinTemperature_WithValidAltitudeOffset() {
         // Arrange - altitude 350m gives offset -1
-        when(repository.findById("38")).thenReturn(Optional.of(new PostalTemperature("38", -10.0)));
+        givenPostalTemperatures(new PostalTemperature("38", -10.0));
         when(mapService.getAltitudeMeters(anyString())).thenReturn(350);
 
         // Act
@@ -116,7 +128,7 @@ public class TemperatureServiceUnitTest {
     @Test
     void testGetStandardMinTemperature_AltitudeZero() {
         // Arrange
-        when(repository.findById("75")).thenReturn(Optional.of(new PostalTemperature("75", -5.0)));
+        givenPostalTemperatures(new PostalTemperature("75", -5.0));
         when(mapService.getAltitudeMeters(anyString())).thenReturn(0);
 
         // Act
@@ -129,7 +141,7 @@ public class TemperatureServiceUnitTest {
     @Test
     void testGetStandardMinTemperature_NegativeAltitude() {
         // Arrange - negative altitude gives offset +2
-        when(repository.findById("75")).thenReturn(Optional.of(new PostalTemperature("75", -5.0)));
+        givenPostalTemperatures(new PostalTemperature("75", -5.0));
         when(mapService.getAltitudeMeters(anyString())).thenReturn(-100);
 
         // Act
@@ -138,4 +150,32 @@ public class TemperatureServiceUnitTest {
         // Assert
         assertEquals(-3.0, result); // -5.0 + 2
     }
+
+    @Test
+    void testGetStandardMinTemperature_WithResolvedAltitude_DoesNotCallMapService() {
+        // Arrange - altitude 650m gives offset -3
+        givenPostalTemperatures(new PostalTemperature("38", -10.0));
+
+        // Act
+        double result = temperatureService.getStandardMinTemperature("38", 650);
+
+        // Assert
+        assertEquals(-13.0, result); // -10.0 + (-3)
+        verifyNoInteractions(mapService);
+    }
+
+    @Test
+    void testGetStandardMinTemperature_CorsicanCodes_ShareDepartment20() {
+        // Arrange - postal codes 20xxx and department codes 2A/2B all map to department 20
+        givenPostalTemperatures(new PostalTemperature("2A", -2.0));
+
+        // Act & Assert
+        assertEquals(-2.0, temperatureService.getStandardMinTemperature("20090", 100));
+        assertEquals(-2.0, temperatureService.getStandardMinTemperature("2B", 100));
+    }
+
+    private void givenPostalTemperatures(PostalTemperature... temperatures) {
+        when(repository.findAll()).thenReturn(List.of(temperatures));
+        lookupTables.refresh();
+    }
 }
@@ -0,0 +1,137 @@
+package com.oneday.service;
+
+import com.oneday.config.ErrorMessageProperties;
+import com.oneday.model.Coordinates;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TracingMapServiceUnitTest {
+
+    private static final Coordinates GRENOBLE = new Coordinates(45.1885, 5.7245);
+
+    @Mock
+    private MapService delegate;
+
+    private InMemorySpanExporter spans;
+    private Tracer tracer;
+    private TracingMapService service;
+
+    @BeforeEach
+    void setup() {
+        spans = InMemorySpanExporter.create();
+        tracer = SdkTracerProvider.builder()
+            .addSpanProcessor(SimpleSpanProcessor.create(spans))
+            .build()
+            .get("test");
+        service = new TracingMapService(delegate, tracer, "nominatim.openstreetmap.org", "api.open-elevation.com",
+            new ErrorMessageProperties());
+    }
+
+    @Test
+    void testGeocodeAddress_RecordsChildSpanOfCurrentRequest() {
+        // Arrange
+        when(delegate.geocodeAddress("Grenoble")).thenReturn(GRENOBLE);
+        Span request = tracer.spanBuilder("POST /api/v1/altitude-temp").startSpan();
+
+        // Act
+        try (Scope ignored = request.makeCurrent()) {
+            service.geocodeAddress("Grenoble");
+        } finally {
+            request.end();
+        }
+
+        // Assert
+        SpanData geocode = span("geocode");
+        assertEquals(SpanKind.CLIENT, geocode.getKind());
+        assertEquals(request.getSpanContext().getTraceId(), geocode.getTraceId());
+        assertEquals(request.getSpanContext().getSpanId(), geocode.getParentSpanId());
+        assertEquals("nominatim.openstreetmap.org", geocode.getAttributes().get(AttributeKey.stringKey("server.address")));
+    }
+
+    @Test
+    void testGetAltitudeMetersAsync_GeocodeCompletedOnAnotherThread_ElevationSpanKeepsRequestTrace() {
+        // Arrange: the geocode completes on a thread outside the request, like the HTTP client's
+        ExecutorService httpThread = Executors.newSingleThreadExecutor();
+        CompletableFuture<Coordinates> geocode = new CompletableFuture<>();
+        when(delegate.geocodeAddressAsync("Grenoble")).thenReturn(geocode);
+        when(delegate.getElevationMetersAsync(GRENOBLE)).thenReturn(CompletableFuture.completedFuture(212));
+        Span request = tracer.spanBuilder("POST /api/v1/altitude-temp").startSpan();
+
+        // Act
+        CompletableFuture<Integer> altitude;
+        try (Scope ignored = request.makeCurrent()) {
+            altitude = service.getAltitudeMetersAsync("Grenoble");
+        } finally {
+            request.end();
+        }
+        httpThread.execute(() -> geocode.complete(GRENOBLE));
+
+        // Assert
+        assertEquals(212, altitude.join());
+        httpThread.shutdown();
+        SpanData elevation = span("elevation");
+        assertEquals(request.getSpanContext().getTraceId(), elevation.getTraceId());
+        assertEquals(request.getSpanContext().getSpanId(), elevation.getParentSpanId());
+    }
+
+    @Test
+    void testGetElevationMetersAsync_Failure_EndsSpanWithError() {
+        // Arrange
+        when(delegate.getElevationMetersAsync(GRENOBLE))
+            .thenReturn(CompletableFuture.failedFuture(new ResourceAccessException("Connection reset")));
+
+        // Act
+        CompletableFuture<Integer> result = service.getElevationMetersAsync(GRENOBLE);
+
+        // Assert
+        assertTrue(result.isCompletedExceptionally());
+        SpanData elevation = span("elevation");
+        assertEquals(StatusCode.ERROR, elevation.getStatus().getStatusCode());
+        assertEquals("io", elevation.getAttributes().get(AttributeKey.stringKey("error.type")));
+    }
+
+    @Test
+    void testGeocodeAddress_NotFound_IsNotAnError() {
+        // Arrange
+        when(delegate.geocodeAddress("Nowhere")).thenThrow(new IllegalArgumentException("Address not found: Nowhere"));
+
+        // Act
+        assertThrows(IllegalArgumentException.class, () -> service.geocodeAddress("Nowhere"));
+
+        // Assert
+        SpanData geocode = span("geocode");
+        assertEquals(StatusCode.UNSET, geocode.getStatus().getStatusCode());
+        assertEquals("not_found", geocode.getAttributes().get(AttributeKey.stringKey("error.type")));
+    }
+
+    private SpanData span(String name) {
+        List<SpanData> finished = spans.getFinishedSpanItems();
+        return finished.stream()
+            .filter(span -> span.getName().equals(name))
+            .findFirst()
+            .orElseThrow(() -> new AssertionError("No finished span " + name + " in " + finished));
+    }
+}
@@ -0,0 +1,151 @@
+package com.oneday.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerUnitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(5);
+
+    private final AtomicLong now = new AtomicLong();
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setup() {
+        breaker = new CircuitBreaker("test", 4, 4, 50, 75, Duration.ofSeconds(1), Duration.ofSeconds(30), 2, now::get);
+    }
+
+    @Test
+    void testFailureRateReached_Opens() {
+        // Arrange
+        recordCalls(false, false, true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        // Act
+        recordCalls(true);
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertThrows(CircuitBreaker.CallNotPermittedException.class, breaker::acquirePermission);
+        assertEquals(1, breaker.rejectedCount());
+    }
+
+    @Test
+    void testSlowCallRateReached_Opens() {
+        for (int i = 0; i < 3; i++) {
+            breaker.onSuccess(breaker.acquirePermission(), SLOW);
+        }
+        breaker.onSuccess(breaker.acquirePermission(), FAST);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void testOldOutcomesLeaveTheWindow() {
+        recordCalls(true, false, false, false, false, true);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testHalfOpen_SuccessfulProbes_Close() {
+        // Arrange
+        recordCalls(true, true, true, true);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+        // Act: two probes are permitted, a third caller is rejected while they are in flight
+        long first = breaker.acquirePermission();
+        long second = breaker.acquirePermission();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertThrows(CircuitBreaker.CallNotPermittedException.class, breaker::acquirePermission);
+        breaker.onSuccess(first, FAST);
+        breaker.onSuccess(second, FAST);
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testHalfOpen_FailedProbe_Reopens() {
+        recordCalls(true, true, true, true);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+        long first = breaker.acquirePermission();
+        long second = breaker.acquirePermission();
+        breaker.onFailure(first, FAST);
+        breaker.onSuccess(second, FAST);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertThrows(CircuitBreaker.CallNotPermittedException.class, breaker::acquirePermission);
+    }
+
+    @Test
+    void testHalfOpen_AbandonedProbe_ReleasesPermission() {
+        recordCalls(true, true, true, true);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        long probe = breaker.acquirePermission();
+        breaker.acquirePermission();
+
+        breaker.releasePermission(probe);
+
+        breaker.acquirePermission();
+        assertThrows(CircuitBreaker.CallNotPermittedException.class, breaker::acquirePermission);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    void testHalfOpen_OutcomeOfCallAdmittedWhileClosed_IsNotAProbe() {
+        // Arrange: a slow call admitted while closed is still in flight when the breaker opens
+        long stale = breaker.acquirePermission();
+        recordCalls(true, true, true, true);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        long first = breaker.acquirePermission();
+        long second = breaker.acquirePermission();
+
+        // Act
+        breaker.onFailure(stale, SLOW);
+        breaker.releasePermission(stale);
+
+        // Assert: neither completed a probe nor freed a probe permit
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertThrows(CircuitBreaker.CallNotPermittedException.class, breaker::acquirePermission);
+        breaker.onSuccess(first, FAST);
+        breaker.onSuccess(second, FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testCheckPermission_DoesNotTakeAPermit() {
+        recordCalls(true, true, true, true);
+        assertThrows(CircuitBreaker.CallNotPermittedException.class, breaker::checkPermission);
+        assertEquals(1, breaker.rejectedCount());
+        now.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+        breaker.checkPermission();
+        breaker.checkPermission();
+        breaker.checkPermission();
+
+        // Both probes are still available
+        breaker.acquirePermission();
+        breaker.acquirePermission();
+        assertThrows(CircuitBreaker.CallNotPermittedException.class, breaker::checkPermission);
+    }
+
+    private void recordCalls(boolean... failures) {
+        for (boolean failed : failures) {
+            long permit = breaker.acquirePermission();
+            if (failed) {
+                breaker.onFailure(permit, FAST);
+            } else {
+                breaker.onSuccess(permit, FAST);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.oneday.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongIntHashMapUnitTest {
+
+    @Test
+    void testPutAndGet_ReturnsStoredValue() {
+        LongIntHashMap map = new LongIntHashMap(16);
+        map.put(42L, 350);
+        map.put(-7L, -12);
+
+        assertEquals(350, map.get(42L, -1));
+        assertEquals(-12, map.get(-7L, -1));
+        assertEquals(-1, map.get(43L, -1));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void testPut_ExistingKey_OverwritesValue() {
+        LongIntHashMap map = new LongIntHashMap(16);
+        map.put(1L, 10);
+        map.put(1L, 20);
+
+        assertEquals(20, map.get(1L, -1));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void testPut_BeyondCapacity_StaysBoundedAndEvicts() {
+        LongIntHashMap map = new LongIntHashMap(64);
+        for (long key = 0; key < 10_000; key++) {
+            map.put(key, (int) key);
+        }
+
+        assertTrue(map.size() <= map.capacity());
+        assertTrue(map.evictions() > 0);
+        assertEquals(9_999, map.get(9_999L, -1)); // most recent insert always survives
+    }
+
+    @Test
+    void testPut_ReservedKey_ThrowsIllegalArgumentException() {
+        LongIntHashMap map = new LongIntHashMap(16);
+        assertThrows(IllegalArgumentException.class, () -> map.put(Long.MIN_VALUE, 1));
+    }
+}
@@ -0,0 +1,49 @@
+package com.oneday.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LookupPriorityUnitTest {
+
+    @Test
+    void testWrapFunction_CallbackOnOtherThread_RunsWithCallersPriority() {
+        // Arrange
+        ExecutorService otherThread = Executors.newSingleThreadExecutor();
+        try {
+            CompletableFuture<String> geocode = new CompletableFuture<>();
+            CompletableFuture<LookupPriority> callback = LookupPriority.callAs(LookupPriority.BATCH,
+                () -> geocode.thenApply(LookupPriority.BATCH.wrapFunction(value -> LookupPriority.current())));
+            CompletableFuture<LookupPriority> unwrapped = geocode.thenApply(value -> LookupPriority.current());
+
+            // Act
+            otherThread.execute(() -> geocode.complete("done"));
+
+            // Assert
+            assertEquals(LookupPriority.BATCH, callback.join());
+            assertEquals(LookupPriority.INTERACTIVE, unwrapped.join());
+        } finally {
+            otherThread.shutdown();
+        }
+    }
+
+    @Test
+    void testWrap_RestoresPreviousPriority() {
+        Function<String, LookupPriority> wrapped = LookupPriority.BATCH.wrapFunction(value -> LookupPriority.current());
+
+        assertEquals(LookupPriority.BATCH, wrapped.apply("value"));
+        assertEquals(LookupPriority.INTERACTIVE, LookupPriority.current());
+    }
+
+    @Test
+    void testMostUrgent_InteractiveWins() {
+        assertEquals(LookupPriority.INTERACTIVE,
+            LookupPriority.mostUrgent(LookupPriority.BATCH, LookupPriority.INTERACTIVE));
+        assertEquals(LookupPriority.BATCH, LookupPriority.mostUrgent(LookupPriority.BATCH, LookupPriority.BATCH));
+    }
+}
@@ -0,0 +1,107 @@
+package com.oneday.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketRateLimiterUnitTest {
+
+    @Test
+    void testAcquire_WithinBurst_DoesNotWait() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("test", 1, 2, 10, Duration.ofSeconds(1));
+
+        assertEquals(0L, limiter.acquire(LookupPriority.INTERACTIVE));
+        assertEquals(0L, limiter.acquire(LookupPriority.INTERACTIVE));
+        assertEquals(2, limiter.grantedCount());
+    }
+
+    @Test
+    void testAcquire_BeyondBurst_WaitsForRefill() {
+        // Arrange
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("test", 20, 1, 10, Duration.ofSeconds(1));
+        limiter.acquire(LookupPriority.INTERACTIVE);
+
+        // Act
+        long waitedNanos = limiter.acquire(LookupPriority.INTERACTIVE);
+
+        // Assert: one token refills every 50 ms
+        assertTrue(waitedNanos >= TimeUnit.MILLISECONDS.toNanos(40), "waited " + waitedNanos + " ns");
+    }
+
+    @Test
+    void testTryAcquire_NoToken_ReturnsFalseWithoutQueueing() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("test", 0.1, 1, 10, Duration.ofSeconds(5));
+
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(0, limiter.queueDepth());
+        assertEquals(1, limiter.grantedCount());
+    }
+
+    @Test
+    void testAcquireAsync_QueueFull_Rejected() {
+        // Arrange
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("test", 1, 1, 1, Duration.ofSeconds(5));
+        limiter.acquire(LookupPriority.INTERACTIVE);
+        limiter.acquireAsync(LookupPriority.INTERACTIVE);
+
+        // Act
+        CompletableFuture<Long> rejected = limiter.acquireAsync(LookupPriority.INTERACTIVE);
+
+        // Assert
+        assertTrue(rejected.isCompletedExceptionally());
+        assertEquals(1, limiter.queueDepth());
+        assertEquals(1, limiter.rejectedCount());
+    }
+
+    @Test
+    void testAcquire_MaxWaitExceeded_Rejected() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("test", 0.1, 1, 10, Duration.ofMillis(50));
+        limiter.acquire(LookupPriority.INTERACTIVE);
+
+        assertThrows(TokenBucketRateLimiter.RateLimitExceededException.class,
+            () -> limiter.acquire(LookupPriority.INTERACTIVE));
+        assertEquals(0, limiter.queueDepth());
+    }
+
+    @Test
+    void testAcquireAsync_InteractiveServedBeforeEarlierBatch() {
+        // Arrange
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("test", 20, 1, 10, Duration.ofSeconds(1));
+        limiter.acquire(LookupPriority.INTERACTIVE);
+        List<LookupPriority> grantOrder = new CopyOnWriteArrayList<>();
+
+        // Act
+        CompletableFuture<Long> batch = limiter.acquireAsync(LookupPriority.BATCH)
+            .whenComplete((waited, error) -> grantOrder.add(LookupPriority.BATCH));
+        CompletableFuture<Long> interactive = limiter.acquireAsync(LookupPriority.INTERACTIVE)
+            .whenComplete((waited, error) -> grantOrder.add(LookupPriority.INTERACTIVE));
+        CompletableFuture.allOf(batch, interactive).join();
+
+        // Assert
+        assertEquals(List.of(LookupPriority.INTERACTIVE, LookupPriority.BATCH), grantOrder);
+    }
+
+    @Test
+    void testClose_RejectsWaitingAndNewCallers() {
+        // Arrange
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("test", 0.1, 1, 10, Duration.ofSeconds(30));
+        limiter.acquire(LookupPriority.INTERACTIVE);
+        CompletableFuture<Long> waiting = limiter.acquireAsync(LookupPriority.INTERACTIVE);
+
+        // Act
+        limiter.close();
+
+        // Assert
+        assertTrue(waiting.isCompletedExceptionally());
+        assertEquals(0, limiter.queueDepth());
+        assertThrows(TokenBucketRateLimiter.RateLimitExceededException.class,
+            () -> limiter.acquire(LookupPriority.INTERACTIVE));
+    }
+}